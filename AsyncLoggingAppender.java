@@ -0,0 +1,45 @@
+package com.domain_name.fulfillment.configuration.api.logging;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+/**
+ * Hands log events to a bounded queue so that request threads do not pay for JSON encoding and
+ * console writes. Once the queue is past its discarding threshold, events at or below
+ * {@code discardLevel} are dropped, and with {@code neverBlock} any event is dropped while the
+ * queue is full. Dropped events are counted for {@link AsyncLoggingMetrics}.
+ */
+public class AsyncLoggingAppender extends AsyncAppender {
+
+  private final LongAdder discarded = new LongAdder();
+  private Level discardLevel = Level.INFO;
+
+  public void setDiscardLevel(String discardLevel) {
+    this.discardLevel = Level.toLevel(discardLevel, Level.INFO);
+  }
+
+  public long getDiscardedCount() {
+    return discarded.sum();
+  }
+
+  @Override
+  protected boolean isDiscardable(ILoggingEvent event) {
+    boolean discardable = event.getLevel().toInt() <= discardLevel.toInt();
+    if (discardable) {
+      discarded.increment();
+    }
+    return discardable;
+  }
+
+  @Override
+  protected void append(ILoggingEvent event) {
+    if (isNeverBlock() && getRemainingCapacity() == 0) {
+      discarded.increment();
+      return;
+    }
+    super.append(event);
+  }
+}
@@ -0,0 +1,36 @@
+package com.domain_name.fulfillment.configuration.api.logging;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.LoggingEvent;
+
+class AsyncLoggingAppenderTest {
+
+  AsyncLoggingAppender appender = new AsyncLoggingAppender();
+
+  private static LoggingEvent event(Level level) {
+    LoggingEvent event = new LoggingEvent();
+    event.setLevel(level);
+    return event;
+  }
+
+  @Test
+  void testInfoAndBelowAreDiscardedByDefault() {
+    Assertions.assertTrue(appender.isDiscardable(event(Level.DEBUG)));
+    Assertions.assertTrue(appender.isDiscardable(event(Level.INFO)));
+    Assertions.assertFalse(appender.isDiscardable(event(Level.WARN)));
+    Assertions.assertFalse(appender.isDiscardable(event(Level.ERROR)));
+    Assertions.assertEquals(2, appender.getDiscardedCount());
+  }
+
+  @Test
+  void testDiscardLevelIsConfigurable() {
+    appender.setDiscardLevel("DEBUG");
+
+    Assertions.assertTrue(appender.isDiscardable(event(Level.DEBUG)));
+    Assertions.assertFalse(appender.isDiscardable(event(Level.INFO)));
+    Assertions.assertEquals(1, appender.getDiscardedCount());
+  }
+}
@@ -0,0 +1,43 @@
+package com.domain_name.fulfillment.configuration.api.logging;
+
+import java.util.Iterator;
+
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Publishes the queue of every {@link AsyncLoggingAppender} attached to the root logger.
+ */
+@Component
+public class AsyncLoggingMetrics {
+
+  public static final String QUEUED_METRIC = "logging.async.queued";
+  public static final String CAPACITY_METRIC = "logging.async.capacity";
+  public static final String DISCARDED_METRIC = "logging.async.discarded";
+
+  public AsyncLoggingMetrics(MeterRegistry meterRegistry) {
+    if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext loggerContext)) {
+      return;
+    }
+    Iterator<Appender<ILoggingEvent>> appenders =
+        loggerContext.getLogger(Logger.ROOT_LOGGER_NAME).iteratorForAppenders();
+    while (appenders.hasNext()) {
+      if (appenders.next() instanceof AsyncLoggingAppender appender) {
+        Gauge.builder(QUEUED_METRIC, appender, AsyncLoggingAppender::getNumberOfElementsInQueue)
+            .tag("appender", appender.getName()).register(meterRegistry);
+        Gauge.builder(CAPACITY_METRIC, appender, AsyncLoggingAppender::getQueueSize)
+            .tag("appender", appender.getName()).register(meterRegistry);
+        FunctionCounter.builder(DISCARDED_METRIC, appender, AsyncLoggingAppender::getDiscardedCount)
+            .tag("appender", appender.getName()).register(meterRegistry);
+      }
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package com.domain_name.fulfillment.configuration.api.logging;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Keeps a copy of the first bytes of a body while it is streamed, so that logging a body never
+ * holds more than the logged limit in memory.
+ */
+final class BodyCapture {
+
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private final int limit;
+  private byte[] buffer = new byte[0];
+  private int length;
+
+  BodyCapture(int limit) {
+    this.limit = limit;
+  }
+
+  void write(int b) {
+    if (length < limit) {
+      ensureCapacity(length + 1);
+      buffer[length++] = (byte) b;
+    }
+  }
+
+  void write(byte[] bytes, int offset, int count) {
+    int captured = Math.min(count, limit - length);
+    if (captured > 0) {
+      ensureCapacity(length + captured);
+      System.arraycopy(bytes, offset, buffer, length, captured);
+      length += captured;
+    }
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity > buffer.length) {
+      int grown = Math.max(capacity, Math.max(INITIAL_CAPACITY, buffer.length * 2));
+      buffer = Arrays.copyOf(buffer, Math.min(grown, limit));
+    }
+  }
+
+  int length() {
+    return length;
+  }
+
+  /**
+   * @param characterEncoding of the body, UTF-8 when unknown or unsupported
+   * @return captured bytes decoded, a character cut by the limit is replaced
+   */
+  String toString(String characterEncoding) {
+    if (length == 0) {
+      return "";
+    }
+    return new String(buffer, 0, length, charset(characterEncoding));
+  }
+
+  private static Charset charset(String characterEncoding) {
+    if (characterEncoding == null) {
+      return StandardCharsets.UTF_8;
+    }
+    try {
+      return Charset.forName(characterEncoding);
+    } catch (IllegalArgumentException ex) {
+      return StandardCharsets.UTF_8;
+    }
+  }
+}
@@ -0,0 +1,94 @@
+package com.domain_name.fulfillment.configuration.api.logging;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+/**
+ * Request whose body is captured up to a limit while the application reads it. Unlike
+ * {@code ContentCachingRequestWrapper}, nothing beyond the limit is kept.
+ */
+public class BodyCapturingRequestWrapper extends HttpServletRequestWrapper {
+
+  private final BodyCapture capture;
+  private ServletInputStream inputStream;
+  private BufferedReader reader;
+
+  public BodyCapturingRequestWrapper(HttpServletRequest request, int limit) {
+    super(request);
+    this.capture = new BodyCapture(limit);
+  }
+
+  @Override
+  public ServletInputStream getInputStream() throws IOException {
+    if (inputStream == null) {
+      inputStream = new CapturingInputStream(super.getInputStream(), capture);
+    }
+    return inputStream;
+  }
+
+  @Override
+  public BufferedReader getReader() throws IOException {
+    if (reader == null) {
+      String encoding = Optional.ofNullable(getCharacterEncoding())
+          .orElse(StandardCharsets.UTF_8.name());
+      reader = new BufferedReader(new InputStreamReader(getInputStream(), encoding));
+    }
+    return reader;
+  }
+
+  public String getCapturedBody() {
+    return capture.toString(getCharacterEncoding());
+  }
+
+  private static final class CapturingInputStream extends ServletInputStream {
+
+    private final ServletInputStream delegate;
+    private final BodyCapture capture;
+
+    private CapturingInputStream(ServletInputStream delegate, BodyCapture capture) {
+      this.delegate = delegate;
+      this.capture = capture;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = delegate.read();
+      if (b != -1) {
+        capture.write(b);
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+      int count = delegate.read(bytes, offset, length);
+      if (count > 0) {
+        capture.write(bytes, offset, count);
+      }
+      return count;
+    }
+
+    @Override
+    public boolean isFinished() {
+      return delegate.isFinished();
+    }
+
+    @Override
+    public boolean isReady() {
+      return delegate.isReady();
+    }
+
+    @Override
+    public void setReadListener(ReadListener readListener) {
+      delegate.setReadListener(readListener);
+    }
+  }
+}
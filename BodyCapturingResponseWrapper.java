@@ -0,0 +1,100 @@
+package com.domain_name.fulfillment.configuration.api.logging;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Response whose body goes straight to the client while its first bytes are captured. Unlike
+ * {@code ContentCachingResponseWrapper}, the body is never buffered before being sent.
+ */
+public class BodyCapturingResponseWrapper extends HttpServletResponseWrapper {
+
+  private final BodyCapture capture;
+  private ServletOutputStream outputStream;
+  private PrintWriter writer;
+
+  public BodyCapturingResponseWrapper(HttpServletResponse response, int limit) {
+    super(response);
+    this.capture = new BodyCapture(limit);
+  }
+
+  @Override
+  public ServletOutputStream getOutputStream() throws IOException {
+    if (outputStream == null) {
+      outputStream = new CapturingOutputStream(super.getOutputStream(), capture);
+    }
+    return outputStream;
+  }
+
+  @Override
+  public PrintWriter getWriter() throws IOException {
+    if (writer == null) {
+      writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+    }
+    return writer;
+  }
+
+  @Override
+  public void flushBuffer() throws IOException {
+    if (writer != null) {
+      writer.flush();
+    }
+    super.flushBuffer();
+  }
+
+  public String getCapturedBody() {
+    if (writer != null) {
+      writer.flush();
+    }
+    return capture.toString(getCharacterEncoding());
+  }
+
+  private static final class CapturingOutputStream extends ServletOutputStream {
+
+    private final ServletOutputStream delegate;
+    private final BodyCapture capture;
+
+    private CapturingOutputStream(ServletOutputStream delegate, BodyCapture capture) {
+      this.delegate = delegate;
+      this.capture = capture;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      delegate.write(b);
+      capture.write(b);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+      delegate.write(bytes, offset, length);
+      capture.write(bytes, offset, length);
+    }
+
+    @Override
+    public void flush() throws IOException {
+      delegate.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+      delegate.close();
+    }
+
+    @Override
+    public boolean isReady() {
+      return delegate.isReady();
+    }
+
+    @Override
+    public void setWriteListener(WriteListener writeListener) {
+      delegate.setWriteListener(writeListener);
+    }
+  }
+}
@@ -0,0 +1,49 @@
+package com.domain_name.fulfillment.configuration.api.logging;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Decides which request and response bodies are logged. Bodies are only captured for the paths
+ * in {@code logging.body.include-paths}, and only logged when the response status is at least
+ * {@code logging.body.min-status}, so that e.g. only failed calls carry their bodies.
+ */
+@Component
+public class BodyLoggingPolicy {
+
+  private final PathMatcher pathMatcher = new AntPathMatcher();
+
+  private final boolean logBody;
+  private final int maxBytes;
+  private final List<String> includePaths;
+  private final int minStatus;
+
+  public BodyLoggingPolicy(@Value("${logging.logBody}") boolean logBody,
+      @Value("${logging.body.max-bytes:50000}") int maxBytes,
+      @Value("${logging.body.include-paths:/**}") List<String> includePaths,
+      @Value("${logging.body.min-status:0}") int minStatus) {
+    this.logBody = logBody;
+    this.maxBytes = maxBytes;
+    this.includePaths = includePaths;
+    this.minStatus = minStatus;
+  }
+
+  public boolean shouldCapture(HttpServletRequest request) {
+    return logBody && includePaths.stream()
+        .anyMatch(path -> pathMatcher.match(path, request.getRequestURI()));
+  }
+
+  public boolean shouldLog(int status) {
+    return status >= minStatus;
+  }
+
+  public int getMaxBytes() {
+    return maxBytes;
+  }
+}
@@ -5,11 +5,15 @@ import org.springframework.boot.actuate.autoconfigure.security.servlet.Managemen
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(exclude = {
     ManagementWebSecurityAutoConfiguration.class})
 @EnableFeignClients
+// SFCCService.syncShippingMethod, the default SFCC sync path, still retries the job status with
+// @Retryable; SFCCJobStatusTracker only replaces it for the opt-in merge import
 @EnableRetry
+@EnableScheduling
 public class FulfillmentConfigurationApiApplication {
 
   public static void main(String[] args) {
@@ -0,0 +1,101 @@
+package com.domain_name.fulfillment.configuration.api.logging;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * Precompiled rules to put headers in the MDC. Sanitized headers are matched by name, ignoring
+ * case and without lowercasing, and the MDC key of every header name is built once and reused.
+ */
+final class HeaderLoggingPolicy {
+
+  /**
+   * Header names come from the callers, past this number of distinct names keys are no longer
+   * kept.
+   */
+  static final int MAX_CACHED_KEYS = 256;
+
+  private final String keyPrefix;
+  private final Set<String> sanitizedHeaders = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+  private final Map<String, String> keys = new ConcurrentHashMap<>();
+
+  /**
+   * @param keyPrefix of the MDC keys, the header name is appended after a dot
+   * @param sanitizedHeaders comma separated names of the headers that are never logged
+   */
+  HeaderLoggingPolicy(String keyPrefix, String sanitizedHeaders) {
+    this.keyPrefix = keyPrefix + ".";
+    Arrays.stream(StringUtils.commaDelimitedListToStringArray(sanitizedHeaders))
+        .map(String::trim)
+        .filter(StringUtils::hasText)
+        .forEach(this.sanitizedHeaders::add);
+  }
+
+  boolean isLogged(String header) {
+    return !sanitizedHeaders.contains(header);
+  }
+
+  String key(String header) {
+    String key = keys.get(header);
+    if (key != null) {
+      return key;
+    }
+    key = keyPrefix + header;
+    if (keys.size() < MAX_CACHED_KEYS) {
+      keys.putIfAbsent(header, key);
+    }
+    return key;
+  }
+
+  /**
+   * Renders the values of a header as a JSON array of strings, the format previously written
+   * with Jackson.
+   *
+   * @param values of the header
+   * @return JSON array
+   */
+  static String join(Collection<String> values) {
+    StringBuilder builder = new StringBuilder(2 + values.size() * 16).append('[');
+    boolean first = true;
+    for (String value : values) {
+      if (!first) {
+        builder.append(',');
+      }
+      first = false;
+      appendJsonString(builder, value);
+    }
+    return builder.append(']').toString();
+  }
+
+  private static void appendJsonString(StringBuilder builder, String value) {
+    if (value == null) {
+      builder.append("null");
+      return;
+    }
+    builder.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"' -> builder.append("\\\"");
+        case '\\' -> builder.append("\\\\");
+        case '\n' -> builder.append("\\n");
+        case '\r' -> builder.append("\\r");
+        case '\t' -> builder.append("\\t");
+        default -> {
+          if (c < 0x20) {
+            builder.append(String.format("\\u%04x", (int) c));
+          } else {
+            builder.append(c);
+          }
+        }
+      }
+    }
+    builder.append('"');
+  }
+}
@@ -0,0 +1,39 @@
+package com.domain_name.fulfillment.configuration.api.logging;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class HeaderLoggingPolicyTest {
+
+  HeaderLoggingPolicy policy = new HeaderLoggingPolicy(MDCManager.REQUEST_HEADERS,
+      " api-key, Authorization ");
+
+  @Test
+  void testSanitizedHeadersIgnoreCase() {
+    Assertions.assertFalse(policy.isLogged("API-Key"));
+    Assertions.assertFalse(policy.isLogged("authorization"));
+    Assertions.assertTrue(policy.isLogged("key"));
+    Assertions.assertTrue(policy.isLogged("Accept"));
+  }
+
+  @Test
+  void testKeyIsReused() {
+    String key = policy.key("Accept");
+
+    Assertions.assertEquals("request.headers.Accept", key);
+    Assertions.assertSame(key, policy.key("Accept"));
+  }
+
+  @Test
+  void testJoinWritesJsonArray() {
+    Assertions.assertEquals("[\"gzip\",\"deflate\"]", HeaderLoggingPolicy.join(
+        List.of("gzip", "deflate")));
+    Assertions.assertEquals("[\"a\\\"b\\\\c\\n\"]", HeaderLoggingPolicy.join(
+        List.of("a\"b\\c\n")));
+    Assertions.assertEquals("[null]", HeaderLoggingPolicy.join(Arrays.asList((String) null)));
+    Assertions.assertEquals("[]", HeaderLoggingPolicy.join(List.of()));
+  }
+}
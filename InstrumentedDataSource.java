@@ -0,0 +1,229 @@
+package com.domain_name.fulfillment.configuration.api.persistence;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Times how long callers wait for a pooled connection and how long they hold it, tagged with
+ * the endpoint that uses it, and logs the prepared statements slower than a threshold with the
+ * shape of their bind parameters (types and array lengths, never values).
+ */
+@Slf4j
+public class InstrumentedDataSource extends DelegatingDataSource {
+
+  public static final String ACQUIRE_METRIC = "jdbc.connections.acquire";
+  public static final String HOLD_METRIC = "jdbc.connections.hold";
+  public static final String SLOW_QUERIES_METRIC = "jdbc.queries.slow";
+
+  static final String NO_ENDPOINT = "none";
+
+  private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery",
+      "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+  private final Supplier<MeterRegistry> meterRegistry;
+  private final long slowQueryNanos;
+
+  public InstrumentedDataSource(DataSource dataSource, Supplier<MeterRegistry> meterRegistry,
+      long slowQueryMs) {
+    super(dataSource);
+    this.meterRegistry = meterRegistry;
+    this.slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryMs);
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    long start = System.nanoTime();
+    Connection connection = super.getConnection();
+    return instrument(connection, start);
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    long start = System.nanoTime();
+    Connection connection = super.getConnection(username, password);
+    return instrument(connection, start);
+  }
+
+  private Connection instrument(Connection connection, long start) {
+    String endpoint = currentEndpoint();
+    long acquired = System.nanoTime();
+    timer(ACQUIRE_METRIC, endpoint).record(acquired - start, TimeUnit.NANOSECONDS);
+    return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+        new Class<?>[] {Connection.class}, new ConnectionHandler(connection, endpoint, acquired));
+  }
+
+  private Timer timer(String name, String endpoint) {
+    return Timer.builder(name)
+        .tag("endpoint", endpoint)
+        .publishPercentileHistogram()
+        .register(meterRegistry.get());
+  }
+
+  /**
+   * @return method and route template of the current request, so the tag cardinality is bound
+   *         by the controller mappings
+   */
+  static String currentEndpoint() {
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+      return NO_ENDPOINT;
+    }
+    Object pattern = servletAttributes.getRequest()
+        .getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    return pattern == null ? NO_ENDPOINT
+        : servletAttributes.getRequest().getMethod() + " " + pattern;
+  }
+
+  /**
+   * @param value bound to a statement parameter
+   * @return type of the value, with the length of arrays and collections
+   */
+  static String shape(Object value) {
+    if (value == null) {
+      return "null";
+    }
+    if (value instanceof Object[] array) {
+      return value.getClass().getComponentType().getSimpleName() + "[" + array.length + "]";
+    }
+    if (value instanceof java.sql.Array array) {
+      try {
+        return "Array[" + java.lang.reflect.Array.getLength(array.getArray()) + "]";
+      } catch (SQLException ex) {
+        return "Array";
+      }
+    }
+    if (value instanceof Collection<?> collection) {
+      return value.getClass().getSimpleName() + "[" + collection.size() + "]";
+    }
+    return value.getClass().getSimpleName();
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException ex) {
+      throw ex.getCause();
+    }
+  }
+
+  private final class ConnectionHandler implements InvocationHandler {
+
+    private final Connection connection;
+    private final String endpoint;
+    private final long acquired;
+    private boolean closed;
+
+    private ConnectionHandler(Connection connection, String endpoint, long acquired) {
+      this.connection = connection;
+      this.endpoint = endpoint;
+      this.acquired = acquired;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      switch (method.getName()) {
+        case "close" -> {
+          if (!closed) {
+            closed = true;
+            timer(HOLD_METRIC, endpoint).record(System.nanoTime() - acquired,
+                TimeUnit.NANOSECONDS);
+          }
+          return InstrumentedDataSource.invoke(connection, method, args);
+        }
+        case "unwrap" -> {
+          if (((Class<?>) args[0]).isInstance(proxy)) {
+            return proxy;
+          }
+          return InstrumentedDataSource.invoke(connection, method, args);
+        }
+        case "equals" -> {
+          return proxy == args[0];
+        }
+        case "hashCode" -> {
+          return System.identityHashCode(proxy);
+        }
+        case "prepareStatement", "prepareCall" -> {
+          Object statement = InstrumentedDataSource.invoke(connection, method, args);
+          Class<?> type = method.getReturnType();
+          return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+              new StatementHandler((PreparedStatement) statement, (String) args[0], endpoint));
+        }
+        default -> {
+          return InstrumentedDataSource.invoke(connection, method, args);
+        }
+      }
+    }
+  }
+
+  private final class StatementHandler implements InvocationHandler {
+
+    private final PreparedStatement statement;
+    private final String sql;
+    private final String endpoint;
+    private final List<String> parameters = new ArrayList<>();
+
+    private StatementHandler(PreparedStatement statement, String sql, String endpoint) {
+      this.statement = statement;
+      this.sql = sql;
+      this.endpoint = endpoint;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      String name = method.getName();
+      if (name.startsWith("set") && args != null && args.length >= 2
+          && args[0] instanceof Integer index) {
+        bind(index, name.equals("setNull") ? null : args[1]);
+      } else if (name.equals("clearParameters")) {
+        parameters.clear();
+      } else if (EXECUTE_METHODS.contains(name)) {
+        long start = System.nanoTime();
+        try {
+          return InstrumentedDataSource.invoke(statement, method, args);
+        } finally {
+          logIfSlow(System.nanoTime() - start);
+        }
+      }
+      return InstrumentedDataSource.invoke(statement, method, args);
+    }
+
+    private void bind(int index, Object value) {
+      while (parameters.size() < index) {
+        parameters.add("unset");
+      }
+      parameters.set(index - 1, shape(value));
+    }
+
+    private void logIfSlow(long elapsed) {
+      if (elapsed < slowQueryNanos) {
+        return;
+      }
+      meterRegistry.get().counter(SLOW_QUERIES_METRIC, "endpoint", endpoint).increment();
+      log.warn("Slow query of {} ms on {} : {} with parameters {}",
+          TimeUnit.NANOSECONDS.toMillis(elapsed), endpoint, sql, parameters);
+    }
+  }
+}
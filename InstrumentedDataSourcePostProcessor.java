@@ -0,0 +1,39 @@
+package com.domain_name.fulfillment.configuration.api.persistence;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Wraps the connection pools in an {@link InstrumentedDataSource}. Proxies and the
+ * {@link ReadReplicaRoutingDataSource} in front of the pools are left alone, so every connection
+ * is only timed once. The meter registry is only resolved when the first connection is taken, so
+ * the data source does not depend on it.
+ */
+@Component
+public class InstrumentedDataSourcePostProcessor implements BeanPostProcessor {
+
+  private final ObjectProvider<MeterRegistry> meterRegistry;
+  private final long slowQueryMs;
+
+  public InstrumentedDataSourcePostProcessor(ObjectProvider<MeterRegistry> meterRegistry,
+      @Value("${persistence.slow-query-ms:200}") long slowQueryMs) {
+    this.meterRegistry = meterRegistry;
+    this.slowQueryMs = slowQueryMs;
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName) {
+    if (bean instanceof DataSource dataSource && !(bean instanceof DelegatingDataSource)
+        && !(bean instanceof ReadReplicaRoutingDataSource)) {
+      return new InstrumentedDataSource(dataSource, meterRegistry::getObject, slowQueryMs);
+    }
+    return bean;
+  }
+}
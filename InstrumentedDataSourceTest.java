@@ -0,0 +1,99 @@
+package com.domain_name.fulfillment.configuration.api.persistence;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class InstrumentedDataSourceTest {
+
+  private static final String ENDPOINT = "GET /shipping-method/{id}";
+
+  DataSource target;
+
+  Connection connection;
+
+  PreparedStatement statement;
+
+  SimpleMeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setup() throws Exception {
+    target = Mockito.mock(DataSource.class);
+    connection = Mockito.mock(Connection.class);
+    statement = Mockito.mock(PreparedStatement.class);
+    meterRegistry = new SimpleMeterRegistry();
+    Mockito.when(target.getConnection()).thenReturn(connection);
+    Mockito.when(connection.prepareStatement(Mockito.anyString())).thenReturn(statement);
+  }
+
+  @AfterEach
+  void tearDown() {
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  private void mockRequest() {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/shipping-method/1");
+    request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/shipping-method/{id}");
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+  }
+
+  @Test
+  void testConnectionAcquireAndHoldAreTimedPerEndpoint() throws Exception {
+    mockRequest();
+    InstrumentedDataSource dataSource = new InstrumentedDataSource(target, () -> meterRegistry,
+        1000);
+
+    try (Connection instrumented = dataSource.getConnection()) {
+      instrumented.setAutoCommit(false);
+    }
+
+    Mockito.verify(connection).setAutoCommit(false);
+    Mockito.verify(connection).close();
+    Assertions.assertEquals(1, meterRegistry.get(InstrumentedDataSource.ACQUIRE_METRIC)
+        .tag("endpoint", ENDPOINT).timer().count());
+    Assertions.assertEquals(1, meterRegistry.get(InstrumentedDataSource.HOLD_METRIC)
+        .tag("endpoint", ENDPOINT).timer().count());
+  }
+
+  @Test
+  void testSlowQueriesAreCountedOutsideRequests() throws Exception {
+    InstrumentedDataSource dataSource = new InstrumentedDataSource(target, () -> meterRegistry,
+        0);
+
+    try (Connection instrumented = dataSource.getConnection();
+         PreparedStatement query = instrumented.prepareStatement("select 1")) {
+      query.setInt(1, 1);
+      query.setObject(2, new String[] {"WEB", "APP"});
+      query.executeQuery();
+    }
+
+    Mockito.verify(statement).executeQuery();
+    Mockito.verify(statement).setObject(2, new String[] {"WEB", "APP"});
+    Assertions.assertEquals(1, meterRegistry.get(InstrumentedDataSource.SLOW_QUERIES_METRIC)
+        .tag("endpoint", InstrumentedDataSource.NO_ENDPOINT).counter().count());
+  }
+
+  @Test
+  void testShapesHideValues() {
+    Assertions.assertEquals("null", InstrumentedDataSource.shape(null));
+    Assertions.assertEquals("Integer", InstrumentedDataSource.shape(25));
+    Assertions.assertEquals("String[2]", InstrumentedDataSource.shape(new String[] {"a", "b"}));
+    Assertions.assertEquals("ArrayList[3]",
+        InstrumentedDataSource.shape(new ArrayList<>(List.of(1, 2, 3))));
+  }
+}
@@ -5,8 +5,6 @@ import java.io.IOException;
 import org.slf4j.MDC;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
-import org.springframework.web.util.ContentCachingRequestWrapper;
-import org.springframework.web.util.ContentCachingResponseWrapper;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -21,12 +19,15 @@ import lombok.extern.slf4j.Slf4j;
 public class LoggingFilter extends OncePerRequestFilter {
 
   private final MDCManager mdcManager;
+  private final BodyLoggingPolicy bodyLoggingPolicy;
 
   @Override
   protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
                                   FilterChain filterChain) throws ServletException, IOException {
     if (request.getRequestURI().contains("/actuator")) {
       filterChain.doFilter(request, response);
+    } else if (bodyLoggingPolicy.shouldCapture(request)) {
+      processLoggingRequestWithBody(request, response, filterChain);
     } else {
       processLoggingRequest(request, response, filterChain);
     }
@@ -36,18 +37,41 @@ public class LoggingFilter extends OncePerRequestFilter {
                                      FilterChain filterChain) throws IOException {
     mdcManager.insertRequestMDC(request);
     mdcManager.insertResponseMDC(response);
-    ContentCachingRequestWrapper requestWrapper = new ContentCachingRequestWrapper(request);
-    ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+    try {
+      filterChain.doFilter(request, response);
+    } catch (ServletException e) {
+      log.error("error while executing the request:  {}", e);
+    } finally {
+      log.info("Request Completed");
+      MDC.clear();
+    }
+  }
+
+  /**
+   * Bodies are streamed as usual and only their first {@code logging.body.max-bytes} bytes are
+   * kept for the log.
+   */
+  private void processLoggingRequestWithBody(HttpServletRequest request,
+                                             HttpServletResponse response,
+                                             FilterChain filterChain) throws IOException {
+    mdcManager.insertRequestMDC(request);
+    mdcManager.insertResponseMDC(response);
+    BodyCapturingRequestWrapper requestWrapper = new BodyCapturingRequestWrapper(request,
+        bodyLoggingPolicy.getMaxBytes());
+    BodyCapturingResponseWrapper responseWrapper = new BodyCapturingResponseWrapper(response,
+        bodyLoggingPolicy.getMaxBytes());
     try {
       filterChain.doFilter(requestWrapper, responseWrapper);
     } catch (ServletException e) {
       log.error("error while executing the request:  {}", e);
     } finally {
-      mdcManager.insertRequestBodyMDC(requestWrapper);
-      mdcManager.insertResponseBodyMDC(responseWrapper);
+      if (bodyLoggingPolicy.shouldLog(responseWrapper.getStatus())) {
+        mdcManager.insertRequestBodyMDC(requestWrapper);
+        mdcManager.insertResponseBodyMDC(responseWrapper);
+      }
       log.info("Request Completed");
       MDC.clear();
-      responseWrapper.copyBodyToResponse();
+      responseWrapper.flushBuffer();
     }
   }
 
@@ -0,0 +1,154 @@
+package com.domain_name.fulfillment.configuration.api.logging;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+class LoggingFilterTest {
+
+  private static final String REQUEST_BODY = "{\"siteId\":\"domain_name-AT\"}";
+  private static final String RESPONSE_BODY = "[{\"carrierName\":\"someCarrier\"}]";
+
+  MDCManager mdcManager = Mockito.mock(MDCManager.class);
+
+  private static final class EchoServlet extends HttpServlet {
+
+    @Override
+    protected void service(HttpServletRequest request, HttpServletResponse response)
+        throws IOException {
+      request.getInputStream().readAllBytes();
+      response.setStatus(Integer.parseInt(request.getParameter("status")));
+      response.getOutputStream().write(RESPONSE_BODY.getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
+  private MockHttpServletRequest request(String uri, int status) {
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+    request.setContent(REQUEST_BODY.getBytes(StandardCharsets.UTF_8));
+    request.setParameter("status", Integer.toString(status));
+    return request;
+  }
+
+  private MockHttpServletResponse filter(BodyLoggingPolicy policy, MockHttpServletRequest request)
+      throws ServletException, IOException {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    new LoggingFilter(mdcManager, policy).doFilter(request, response,
+        new MockFilterChain(new EchoServlet()));
+    return response;
+  }
+
+  @Test
+  void testBodiesAreNotCapturedWhenDisabled() throws Exception {
+    BodyLoggingPolicy policy = new BodyLoggingPolicy(false, 10, List.of("/**"), 0);
+
+    MockHttpServletResponse response = filter(policy, request("/shipping-method", 200));
+
+    Assertions.assertEquals(RESPONSE_BODY, response.getContentAsString());
+    Mockito.verify(mdcManager, Mockito.times(0)).insertRequestBodyMDC(Mockito.any());
+    Mockito.verify(mdcManager, Mockito.times(0)).insertResponseBodyMDC(Mockito.any());
+  }
+
+  @Test
+  void testBodiesAreStreamedAndCapturedUpToLimit() throws Exception {
+    BodyLoggingPolicy policy = new BodyLoggingPolicy(true, 10, List.of("/shipping-method/**"), 0);
+    ArgumentCaptor<BodyCapturingRequestWrapper> requestCaptor = ArgumentCaptor
+        .forClass(BodyCapturingRequestWrapper.class);
+    ArgumentCaptor<BodyCapturingResponseWrapper> responseCaptor = ArgumentCaptor
+        .forClass(BodyCapturingResponseWrapper.class);
+
+    MockHttpServletResponse response = filter(policy, request("/shipping-method/bulk", 200));
+
+    Assertions.assertEquals(RESPONSE_BODY, response.getContentAsString());
+    Mockito.verify(mdcManager).insertRequestBodyMDC(requestCaptor.capture());
+    Mockito.verify(mdcManager).insertResponseBodyMDC(responseCaptor.capture());
+    Assertions.assertEquals(REQUEST_BODY.substring(0, 10),
+        requestCaptor.getValue().getCapturedBody());
+    Assertions.assertEquals(RESPONSE_BODY.substring(0, 10),
+        responseCaptor.getValue().getCapturedBody());
+  }
+
+  @Test
+  void testBodiesAreOnlyLoggedForSampledStatus() throws Exception {
+    BodyLoggingPolicy policy = new BodyLoggingPolicy(true, 100, List.of("/**"), 400);
+
+    filter(policy, request("/shipping-method", 200));
+    filter(policy, request("/shipping-method", 422));
+
+    Mockito.verify(mdcManager, Mockito.times(1)).insertRequestBodyMDC(Mockito.any());
+    Mockito.verify(mdcManager, Mockito.times(1)).insertResponseBodyMDC(Mockito.any());
+  }
+
+  @Test
+  void testContextDoesNotLeakBetweenRequestsOnSameThread() throws Exception {
+    BodyLoggingPolicy policy = new BodyLoggingPolicy(false, 10, List.of("/**"), 0);
+    LoggingFilter loggingFilter = new LoggingFilter(new MDCManager("api-key"), policy);
+    MockHttpServletRequest first = request("/shipping-method", 200);
+    first.addHeader("X-Request-Id", "first");
+    MockHttpServletRequest second = request("/carrier-string", 200);
+    List<String> requestIds = new ArrayList<>();
+    HttpServlet servlet = new HttpServlet() {
+      @Override
+      protected void service(HttpServletRequest request, HttpServletResponse response) {
+        requestIds.add(MDC.get(MDCManager.REQUEST_HEADERS + ".X-Request-Id"));
+      }
+    };
+
+    loggingFilter.doFilter(first, new MockHttpServletResponse(), new MockFilterChain(servlet));
+    Assertions.assertNull(MDC.get(MDCManager.REQUEST_URL));
+    loggingFilter.doFilter(second, new MockHttpServletResponse(), new MockFilterChain(servlet));
+
+    Assertions.assertEquals(Arrays.asList("first", null), requestIds);
+  }
+
+  @Test
+  void testEncodedResponseBodyIsLoggedAsPlaceholder() throws Exception {
+    BodyLoggingPolicy policy = new BodyLoggingPolicy(true, 100, List.of("/**"), 0);
+    List<String> responseBodies = new ArrayList<>();
+    HttpServlet servlet = new HttpServlet() {
+      @Override
+      protected void service(HttpServletRequest request, HttpServletResponse response)
+          throws IOException {
+        response.setHeader("Content-Encoding", "gzip");
+        response.getOutputStream().write(new byte[] {31, -117, 8, 0});
+      }
+    };
+    MDCManager recordingManager = new MDCManager("api-key") {
+      @Override
+      public void insertResponseBodyMDC(BodyCapturingResponseWrapper responseWrapper) {
+        super.insertResponseBodyMDC(responseWrapper);
+        responseBodies.add(MDC.get(MDCManager.RESPONSE_BODY));
+      }
+    };
+
+    new LoggingFilter(recordingManager, policy).doFilter(request("/shipping-method", 200),
+        new MockHttpServletResponse(), new MockFilterChain(servlet));
+
+    Assertions.assertEquals(List.of("[gzip encoded body not logged]"), responseBodies);
+  }
+
+  @Test
+  void testBodiesAreNotCapturedForExcludedPath() throws Exception {
+    BodyLoggingPolicy policy = new BodyLoggingPolicy(true, 100, List.of("/shipping-method/**"),
+        0);
+
+    filter(policy, request("/carrier-string", 200));
+
+    Mockito.verify(mdcManager, Mockito.times(0)).insertRequestBodyMDC(Mockito.any());
+  }
+}
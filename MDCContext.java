@@ -0,0 +1,83 @@
+package com.domain_name.fulfillment.configuration.api.logging;
+
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import org.slf4j.MDC;
+
+/**
+ * Carries the MDC of the submitting thread to the thread that runs a task, whether a pooled,
+ * scheduled or virtual thread. The context is copied once when the task is wrapped, installed
+ * while the task runs and the previous context of the running thread is restored afterwards, so
+ * a pooled thread never keeps the context of an earlier task.
+ */
+public final class MDCContext {
+
+  private final Map<String, String> contextMap;
+
+  private MDCContext(Map<String, String> contextMap) {
+    this.contextMap = contextMap;
+  }
+
+  /**
+   * @return snapshot of the MDC of the current thread
+   */
+  public static MDCContext capture() {
+    return new MDCContext(MDC.getCopyOfContextMap());
+  }
+
+  public static Runnable wrap(Runnable task) {
+    MDCContext context = capture();
+    return () -> context.run(task);
+  }
+
+  /**
+   * @param task to be run on another thread, for example by {@code CompletableFuture.supplyAsync}
+   * @return task running with the MDC of the current thread
+   */
+  public static <T> Supplier<T> wrapSupplier(Supplier<T> task) {
+    MDCContext context = capture();
+    return () -> context.get(task);
+  }
+
+  /**
+   * @param executor to run tasks on, for example a {@code CompletableFuture} async stage
+   * @return executor running every task with the MDC of the thread that submitted it
+   */
+  public static Executor wrap(Executor executor) {
+    return task -> executor.execute(wrap(task));
+  }
+
+  public void run(Runnable task) {
+    Map<String, String> previous = install();
+    try {
+      task.run();
+    } finally {
+      set(previous);
+    }
+  }
+
+  public <T> T get(Supplier<T> task) {
+    Map<String, String> previous = install();
+    try {
+      return task.get();
+    } finally {
+      set(previous);
+    }
+  }
+
+  private Map<String, String> install() {
+    Map<String, String> previous = MDC.getCopyOfContextMap();
+    set(contextMap);
+    return previous;
+  }
+
+  private static void set(Map<String, String> contextMap) {
+    if (contextMap == null || contextMap.isEmpty()) {
+      MDC.clear();
+    } else {
+      MDC.setContextMap(contextMap);
+    }
+  }
+}
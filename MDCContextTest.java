@@ -0,0 +1,75 @@
+package com.domain_name.fulfillment.configuration.api.logging;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+class MDCContextTest {
+
+  ExecutorService executor;
+
+  @BeforeEach
+  void setup() {
+    executor = Executors.newSingleThreadExecutor();
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+    MDC.clear();
+  }
+
+  private Map<String, String> contextOnExecutor() throws Exception {
+    return CompletableFuture.supplyAsync(MDCContext.wrapSupplier(MDC::getCopyOfContextMap),
+        executor).get();
+  }
+
+  @Test
+  void testContextIsPropagatedToCompletableFuture() throws Exception {
+    MDC.put(MDCManager.REQUEST_SITE_ID, "domain_name-AT");
+
+    Assertions.assertEquals(Map.of(MDCManager.REQUEST_SITE_ID, "domain_name-AT"),
+        contextOnExecutor());
+  }
+
+  @Test
+  void testContextDoesNotLeakToNextTaskOnReusedThread() throws Exception {
+    MDC.put(MDCManager.REQUEST_SITE_ID, "domain_name-AT");
+    contextOnExecutor();
+    MDC.clear();
+
+    Map<String, String> next = contextOnExecutor();
+
+    Assertions.assertTrue(next == null || next.isEmpty());
+    Assertions.assertNull(executor.submit(() -> MDC.get(MDCManager.REQUEST_SITE_ID)).get());
+  }
+
+  @Test
+  void testContextOfRunningThreadIsRestored() throws Exception {
+    executor.submit(() -> MDC.put(MDCManager.REQUEST_SITE_ID, "domain_name-DE")).get();
+    MDC.put(MDCManager.REQUEST_SITE_ID, "domain_name-AT");
+
+    executor.submit(MDCContext.wrap(() -> Assertions.assertEquals("domain_name-AT",
+        MDC.get(MDCManager.REQUEST_SITE_ID)))).get();
+
+    Assertions.assertEquals("domain_name-DE",
+        executor.submit(() -> MDC.get(MDCManager.REQUEST_SITE_ID)).get());
+  }
+
+  @Test
+  void testWrappedExecutorPropagatesContext() throws Exception {
+    MDC.put(MDCManager.REQUEST_SITE_ID, "domain_name-AT");
+
+    String siteId = CompletableFuture.supplyAsync(() -> MDC.get(MDCManager.REQUEST_SITE_ID),
+        MDCContext.wrap(executor)).get();
+
+    Assertions.assertEquals("domain_name-AT", siteId);
+  }
+}
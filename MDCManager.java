@@ -1,13 +1,9 @@
 package com.domain_name.fulfillment.configuration.api.logging;
 
-import java.io.UnsupportedEncodingException;
-import java.util.Locale;
-
-import org.jboss.logging.MDC;
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
-import org.springframework.web.util.ContentCachingRequestWrapper;
-import org.springframework.web.util.ContentCachingResponseWrapper;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -17,7 +13,6 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class MDCManager {
 
-  private static final int MAX_PAYLOAD_LENGTH = 50_000;
   public static final String REQUEST_URL = "request.url";
   public static final String REQUEST_HEADERS = "request.headers";
   public static final String REQUEST_BODY = "request.body";
@@ -29,11 +24,15 @@ public class MDCManager {
 
   public static final String REQUEST_SITE_ID = "siteId";
 
-  @Value("${logging.sanitize.headers}")
-  private String sanitizedHeaders;
+  private static final String ENCODED_BODY = "[%s encoded body not logged]";
+
+  private final HeaderLoggingPolicy requestHeaders;
+  private final HeaderLoggingPolicy responseHeaders;
 
-  @Value("${logging.logBody}")
-  boolean isLogBody;
+  public MDCManager(@Value("${logging.sanitize.headers}") String sanitizedHeaders) {
+    this.requestHeaders = new HeaderLoggingPolicy(REQUEST_HEADERS, sanitizedHeaders);
+    this.responseHeaders = new HeaderLoggingPolicy(RESPONSE_HEADERS, "");
+  }
 
   public void insertRequestMDC(HttpServletRequest request) {
     putRequestHeaders(request);
@@ -41,52 +40,36 @@ public class MDCManager {
     MDC.put(REQUEST_METHOD, request.getMethod());
   }
 
-  public void insertRequestBodyMDC(ContentCachingRequestWrapper requestWrapper) {
-    if (isLogBody) {
-      String requestBody = convertPayloadToString(requestWrapper.getContentAsByteArray(),
-          requestWrapper.getCharacterEncoding());
-      MDC.put(REQUEST_BODY, requestBody);
-    }
+  public void insertRequestBodyMDC(BodyCapturingRequestWrapper requestWrapper) {
+    MDC.put(REQUEST_BODY, requestWrapper.getCapturedBody());
   }
 
   public void insertResponseMDC(HttpServletResponse response) {
     putResponseHeaders(response);
-    MDC.put(RESPONSE_STATUS_CODE, response.getStatus());
+    MDC.put(RESPONSE_STATUS_CODE, Integer.toString(response.getStatus()));
   }
 
-  public void insertResponseBodyMDC(ContentCachingResponseWrapper responseWrapper) {
-    if (isLogBody) {
-      String responseBody = convertPayloadToString(responseWrapper.getContentAsByteArray(),
-          responseWrapper.getCharacterEncoding());
-      MDC.put(RESPONSE_BODY, responseBody);
-    }
+  /**
+   * An encoded body, e.g. a gzipped snapshot, would only be logged as unreadable bytes, so a
+   * placeholder naming the encoding is logged instead.
+   */
+  public void insertResponseBodyMDC(BodyCapturingResponseWrapper responseWrapper) {
+    String contentEncoding = responseWrapper.getHeader(HttpHeaders.CONTENT_ENCODING);
+    MDC.put(RESPONSE_BODY, contentEncoding == null ? responseWrapper.getCapturedBody()
+        : String.format(ENCODED_BODY, contentEncoding));
   }
 
   private void putRequestHeaders(HttpServletRequest request) {
     request.getHeaderNames().asIterator().forEachRemaining(header -> {
-      if (!sanitizedHeaders.contains(header.toLowerCase(Locale.ENGLISH))) {
-        MDC.put(REQUEST_HEADERS + "." + header, request.getHeader(header));
+      if (requestHeaders.isLogged(header)) {
+        MDC.put(requestHeaders.key(header), request.getHeader(header));
       }
     });
   }
 
   private void putResponseHeaders(HttpServletResponse response) {
-    response.getHeaderNames().stream()
-        .forEach(header -> MDC.put(RESPONSE_HEADERS + "." + header, response.getHeader(header)));
-  }
-
-  private String convertPayloadToString(byte[] buf, String characterEncoding) {
-    String payload = "";
-    if (buf.length > 0) {
-      int length = Math.min(buf.length, MAX_PAYLOAD_LENGTH);
-      try {
-        payload = new String(buf, 0, length, characterEncoding);
-      } catch (UnsupportedEncodingException ex) {
-        log.warn("conversion of payload to string failed : {}", ex);
-        payload = "[unknown]";
-      }
-    }
-    return payload;
+    response.getHeaderNames()
+        .forEach(header -> MDC.put(responseHeaders.key(header), response.getHeader(header)));
   }
 
   public void insertSiteIdMDC(String siteId) {
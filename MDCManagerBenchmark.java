@@ -0,0 +1,73 @@
+package com.domain_name.fulfillment.configuration.api.logging;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+/**
+ * Header and body logging of incoming requests, from payloads below the logged limit to payloads
+ * that get truncated. Run with {@code mvn -P benchmark verify}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MDCManagerBenchmark {
+
+  private static final int MAX_BYTES = 50_000;
+
+  @Param({"1024", "65536"})
+  int payloadSize;
+
+  MDCManager mdcManager;
+  BodyCapturingRequestWrapper requestWrapper;
+
+  @Setup
+  public void setup() throws IOException {
+    mdcManager = new MDCManager("api-key");
+    StringBuilder payload = new StringBuilder(payloadSize);
+    while (payload.length() < payloadSize) {
+      payload.append("{\"siteId\":\"domain_name-AT\",\"carrierName\":\"carrierName\"},");
+    }
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", "/shipping-method");
+    request.setCharacterEncoding(StandardCharsets.UTF_8.name());
+    request.setContent(payload.substring(0, payloadSize).getBytes(StandardCharsets.UTF_8));
+    request.addHeader("api-key", "secret");
+    request.addHeader("Content-Type", "application/json");
+    request.addHeader("Accept", "application/json");
+    request.addHeader("Accept-Encoding", "gzip, deflate, br");
+    request.addHeader("User-Agent", "Apache-HttpClient/4.5.13 (Java/17)");
+    request.addHeader("X-Request-Id", "6b854219-85c5-4833-b75e-6af7e51332c6");
+    request.addHeader("traceparent", "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01");
+    requestWrapper = new BodyCapturingRequestWrapper(request, MAX_BYTES);
+    requestWrapper.getInputStream().readAllBytes();
+  }
+
+  @TearDown
+  public void tearDown() {
+    MDC.clear();
+  }
+
+  @Benchmark
+  public Object insertRequestMDC() {
+    mdcManager.insertRequestMDC(requestWrapper);
+    return MDC.get(MDCManager.REQUEST_URL);
+  }
+
+  @Benchmark
+  public Object insertRequestBodyMDC() {
+    mdcManager.insertRequestBodyMDC(requestWrapper);
+    return MDC.get(MDCManager.REQUEST_BODY);
+  }
+}
@@ -2,28 +2,18 @@ package com.domain_name.fulfillment.configuration.api.logging;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.util.Collection;
-import java.util.Locale;
-import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 
-import org.jboss.logging.MDC;
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 import feign.Request;
 import feign.Response;
-import feign.Util;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @Component
 @Slf4j
-@RequiredArgsConstructor
 public class MDCManagerClient {
 
   public static final String OUTGOING_REQUEST_HEADERS = "outgoingRequest.request.headers";
@@ -35,13 +25,19 @@ public class MDCManagerClient {
   public static final String OUTGOING_RESPONSE_BODY = "outgoingRequest.response.body";
   public static final String OUTGOING_RESPONSE_STATUS = "outgoingRequest.response.status";
 
-  @Value("${logging.sanitize.clientheaders}")
-  private String sanitizedHeaders;
-
-  @Value("${logging.logBody}")
-  boolean isLogBody;
+  private final HeaderLoggingPolicy requestHeaders;
+  private final HeaderLoggingPolicy responseHeaders;
+  private final boolean isLogBody;
+  private final int maxBodyBytes;
 
-  private final ObjectMapper mapper;
+  public MDCManagerClient(@Value("${logging.sanitize.clientheaders}") String sanitizedHeaders,
+                          @Value("${logging.logBody}") boolean isLogBody,
+                          @Value("${logging.body.max-bytes:50000}") int maxBodyBytes) {
+    this.requestHeaders = new HeaderLoggingPolicy(OUTGOING_REQUEST_HEADERS, sanitizedHeaders);
+    this.responseHeaders = new HeaderLoggingPolicy(OUTGOING_RESPONSE_HEADERS, "");
+    this.isLogBody = isLogBody;
+    this.maxBodyBytes = maxBodyBytes;
+  }
 
   public void insertOutgoingRequestMDC(Request request) {
     MDC.put(OUTGOING_REQUEST_URL, request.url());
@@ -54,42 +50,39 @@ public class MDCManagerClient {
   }
 
   private void putRequestHeaders(Request request) {
-    Map<String, Collection<String>> headers = request.headers();
-    headers.entrySet().stream()
-        .filter(entry -> !sanitizedHeaders.contains(entry.getKey().toLowerCase(Locale.ENGLISH)))
-        .forEach(entry -> {
-          try {
-            MDC.put(OUTGOING_REQUEST_HEADERS + "." + entry.getKey(),
-                mapper.writeValueAsString(entry.getValue()));
-          } catch (JsonProcessingException e) {
-            log.warn("cannot log headers: {}", e);
-          }
-        });
+    request.headers().forEach((header, values) -> {
+      if (requestHeaders.isLogged(header)) {
+        MDC.put(requestHeaders.key(header), HeaderLoggingPolicy.join(values));
+      }
+    });
   }
 
+  /**
+   * The body is only touched when it is logged, then its first {@code logging.body.max-bytes}
+   * bytes are read ahead and the rest is left on the connection for the decoder.
+   *
+   * @param response of the outgoing call
+   * @return response to be decoded in place of the given one
+   * @throws IOException if the logged part of the body cannot be read
+   */
   public Response insertOutgoingResponseMDC(Response response) throws IOException {
-    byte[] responseCopy = new byte[0];
     putResponseHeaders(response);
     MDC.put(OUTGOING_RESPONSE_STATUS, Integer.toString(response.status()));
-    if (Objects.nonNull(response.body())) {
-      responseCopy = Util.toByteArray(response.body().asInputStream());
+    if (!isLogBody) {
+      return response;
     }
-    if (isLogBody) {
-      MDC.put(OUTGOING_RESPONSE_BODY, new String(responseCopy, StandardCharsets.UTF_8));
+    if (response.body() == null) {
+      MDC.put(OUTGOING_RESPONSE_BODY, "");
+      return response;
     }
-    return response.toBuilder().body(responseCopy).build();
+    PrefixCapturingBody body = PrefixCapturingBody.capture(response.body(), maxBodyBytes);
+    MDC.put(OUTGOING_RESPONSE_BODY, body.getPrefix(response.charset()));
+    return response.toBuilder().body(body).build();
   }
 
   private void putResponseHeaders(Response response) {
-    Map<String, Collection<String>> headers = response.headers();
-    headers.entrySet().stream().forEach(entry -> {
-      try {
-        MDC.put(OUTGOING_RESPONSE_HEADERS + "." + entry.getKey(),
-            mapper.writeValueAsString(entry.getValue()));
-      } catch (JsonProcessingException e) {
-        log.warn("cannot log headers: {}", e);
-      }
-    });
+    response.headers().forEach((header, values) ->
+        MDC.put(responseHeaders.key(header), HeaderLoggingPolicy.join(values)));
   }
 
 }
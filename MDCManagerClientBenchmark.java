@@ -0,0 +1,84 @@
+package com.domain_name.fulfillment.configuration.api.logging;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.MDC;
+
+import feign.Request;
+import feign.Response;
+
+/**
+ * Logging of outgoing SFCC calls, with response bodies from below the logged limit to large job
+ * searches. Run with {@code mvn -P benchmark verify} and compare gc.alloc.rate.norm between runs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MDCManagerClientBenchmark {
+
+  private static final int MAX_BYTES = 50000;
+
+  @Param({"1000", "100000", "5000000"})
+  int payloadSize;
+
+  MDCManagerClient mdcManagerClient;
+  Request request;
+  byte[] payload;
+
+  @Setup
+  public void setup() {
+    mdcManagerClient = new MDCManagerClient("authorization", true, MAX_BYTES);
+    request = Request.create(Request.HttpMethod.POST,
+        "https://sfcc.test/s/-/dw/data/v22_10/job_execution_search",
+        Map.of("Authorization", List.of("Bearer token"),
+            "Content-Type", List.of("application/json"),
+            "Accept", List.of("application/json"),
+            "Accept-Encoding", List.of("gzip", "deflate"),
+            "x-dw-client-id", List.of("e7e81de9-6486-4099-8a2e-6cee112a9e05")),
+        "{}".getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8, null);
+    payload = new byte[payloadSize];
+    Arrays.fill(payload, (byte) 'a');
+  }
+
+  @TearDown
+  public void tearDown() {
+    MDC.clear();
+  }
+
+  @Benchmark
+  public Object insertOutgoingRequestMDC() {
+    mdcManagerClient.insertOutgoingRequestMDC(request);
+    return MDC.get(MDCManagerClient.OUTGOING_REQUEST_URL);
+  }
+
+  @Benchmark
+  public long insertOutgoingResponseMDC() throws IOException {
+    Response response = Response.builder()
+        .status(200)
+        .request(request)
+        .headers(Map.of("Content-Type", List.of("application/json")))
+        .body(new ByteArrayInputStream(payload), payload.length)
+        .build();
+    try (InputStream body = mdcManagerClient.insertOutgoingResponseMDC(response).body()
+        .asInputStream()) {
+      return body.transferTo(OutputStream.nullOutputStream());
+    }
+  }
+}
@@ -0,0 +1,79 @@
+package com.domain_name.fulfillment.configuration.api.logging;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import feign.Request;
+import feign.Response;
+
+class MDCManagerClientTest {
+
+  private static final Request REQUEST = Request.create(Request.HttpMethod.GET, "http://test",
+      Map.of(), null, StandardCharsets.UTF_8, null);
+
+  @AfterEach
+  void tearDown() {
+    MDC.clear();
+  }
+
+  private static Response response(byte[] body) {
+    return Response.builder()
+        .status(200)
+        .request(REQUEST)
+        .headers(Map.of("Content-Type", List.of("application/json")))
+        .body(new ByteArrayInputStream(body), body.length)
+        .build();
+  }
+
+  private static byte[] readBody(Response response) throws IOException {
+    try (InputStream body = response.body().asInputStream()) {
+      return body.readAllBytes();
+    }
+  }
+
+  @Test
+  void testResponseBodyIsNotReadWhenNotLogged() throws IOException {
+    Response response = response("[]".getBytes(StandardCharsets.UTF_8));
+
+    Response logged = new MDCManagerClient("authorization", false, 10)
+        .insertOutgoingResponseMDC(response);
+
+    Assertions.assertSame(response, logged);
+    Assertions.assertNull(MDC.get(MDCManagerClient.OUTGOING_RESPONSE_BODY));
+    Assertions.assertEquals("200", MDC.get(MDCManagerClient.OUTGOING_RESPONSE_STATUS));
+  }
+
+  @Test
+  void testOnlyLoggedPartOfResponseBodyIsReadAhead() throws IOException {
+    byte[] body = new byte[100000];
+    Arrays.fill(body, (byte) 'a');
+
+    Response logged = new MDCManagerClient("authorization", true, 10)
+        .insertOutgoingResponseMDC(response(body));
+
+    Assertions.assertEquals("aaaaaaaaaa", MDC.get(MDCManagerClient.OUTGOING_RESPONSE_BODY));
+    Assertions.assertEquals(body.length, logged.body().length());
+    Assertions.assertArrayEquals(body, readBody(logged));
+  }
+
+  @Test
+  void testShortResponseBodyIsLoggedWhole() throws IOException {
+    byte[] body = "[{\"id\":\"job\"}]".getBytes(StandardCharsets.UTF_8);
+
+    Response logged = new MDCManagerClient("authorization", true, 1000)
+        .insertOutgoingResponseMDC(response(body));
+
+    Assertions.assertEquals("[{\"id\":\"job\"}]", MDC.get(MDCManagerClient.OUTGOING_RESPONSE_BODY));
+    Assertions.assertArrayEquals(body, readBody(logged));
+  }
+}
@@ -0,0 +1,17 @@
+package com.domain_name.fulfillment.configuration.api.logging;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Picked up by the auto-configured task executor, so {@code @Async} methods log with the MDC of
+ * their caller.
+ */
+@Component
+public class MDCTaskDecorator implements TaskDecorator {
+
+  @Override
+  public Runnable decorate(Runnable runnable) {
+    return MDCContext.wrap(runnable);
+  }
+}
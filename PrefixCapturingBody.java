@@ -0,0 +1,81 @@
+package com.domain_name.fulfillment.configuration.api.logging;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import feign.Response;
+
+/**
+ * Body of an outgoing call whose first bytes are read ahead for the log. The decoder still reads
+ * the whole body from the connection, the read-ahead prefix first, so at most the logged limit
+ * is held in memory whatever the size of the body.
+ */
+final class PrefixCapturingBody implements Response.Body {
+
+  private final Response.Body body;
+  private final byte[] prefix;
+  private final InputStream inputStream;
+
+  private PrefixCapturingBody(Response.Body body, byte[] prefix, InputStream remaining) {
+    this.body = body;
+    this.prefix = prefix;
+    this.inputStream = new SequenceInputStream(new ByteArrayInputStream(prefix), remaining);
+  }
+
+  /**
+   * Reads the first bytes of a body, blocking until they are received or the body ends.
+   *
+   * @param body of the response
+   * @param limit of bytes read ahead
+   * @return body starting with the bytes read ahead
+   * @throws IOException if the body cannot be read
+   */
+  static PrefixCapturingBody capture(Response.Body body, int limit) throws IOException {
+    InputStream remaining = body.asInputStream();
+    return new PrefixCapturingBody(body, remaining.readNBytes(limit), remaining);
+  }
+
+  /**
+   * @param charset of the response, UTF-8 when unknown
+   * @return bytes read ahead decoded, a character cut by the limit is replaced
+   */
+  String getPrefix(Charset charset) {
+    return new String(prefix, charset == null ? StandardCharsets.UTF_8 : charset);
+  }
+
+  @Override
+  public Integer length() {
+    return body.length();
+  }
+
+  @Override
+  public boolean isRepeatable() {
+    return false;
+  }
+
+  @Override
+  public InputStream asInputStream() {
+    return inputStream;
+  }
+
+  @Override
+  public Reader asReader() {
+    return asReader(StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public Reader asReader(Charset charset) {
+    return new InputStreamReader(inputStream, charset);
+  }
+
+  @Override
+  public void close() throws IOException {
+    inputStream.close();
+  }
+}
@@ -0,0 +1,60 @@
+package com.domain_name.fulfillment.configuration.api.persistence;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Opt-in read replica, enabled by setting {@code spring.datasource.replica.url}. The primary
+ * pool keeps the usual {@code spring.datasource.hikari} settings and the replica pool takes
+ * {@code spring.datasource.replica.hikari}; JPA and Flyway get a routing data source on top of
+ * both, which only sends read-only transactions to the replica.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "spring.datasource.replica", name = "url")
+public class ReadReplicaDataSourceConfiguration {
+
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  HikariDataSource primaryDataSource(DataSourceProperties properties) {
+    return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+  }
+
+  @Bean
+  @ConfigurationProperties("spring.datasource.replica.hikari")
+  HikariDataSource replicaDataSource(DataSourceProperties properties,
+      @Value("${spring.datasource.replica.url}") String url) {
+    return properties.initializeDataSourceBuilder().type(HikariDataSource.class).url(url).build();
+  }
+
+  @Bean
+  ReplicaStatus replicaStatus(@Qualifier("replicaDataSource") DataSource replicaDataSource,
+      @Value("${spring.datasource.replica.max-lag-ms:1000}") long maxLagMs,
+      @Value("${spring.datasource.replica.check-interval-ms:1000}") long checkIntervalMs,
+      MeterRegistry meterRegistry) {
+    return new ReplicaStatus(replicaDataSource, maxLagMs, checkIntervalMs, meterRegistry);
+  }
+
+  @Bean
+  @Primary
+  DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+      @Qualifier("replicaDataSource") DataSource replicaDataSource, ReplicaStatus replicaStatus) {
+    log.info("Read-only transactions are routed to the read replica");
+    return new LazyConnectionDataSourceProxy(new ReadReplicaRoutingDataSource(primaryDataSource,
+        replicaDataSource, replicaStatus));
+  }
+}
@@ -0,0 +1,114 @@
+package com.domain_name.fulfillment.configuration.api.persistence;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Gives read-your-writes on top of the read replica. Writes are recorded per site once they
+ * commit, and for {@code spring.datasource.replica.sticky-ms} afterwards read-only transactions
+ * on that site are pinned to the primary, so a GET following a PATCH neither returns nor caches
+ * what the replica has not replayed yet. The window defaults to the tolerated replica lag plus
+ * the lag check interval, since the lag can grow by up to one interval before it is measured
+ * again.
+ *
+ * <p>Writes are only known to the instance that made them; without a replica configured the
+ * routing is never consulted.
+ */
+@Component
+public class ReadReplicaRouting {
+
+  private static final Object PRIMARY_REQUIRED = new Object();
+
+  private final Map<String, Long> stickyUntil = new ConcurrentHashMap<>();
+  private final long stickyNanos;
+  private volatile long allStickyUntil;
+
+  @Autowired
+  public ReadReplicaRouting(@Value("${spring.datasource.replica.sticky-ms:-1}") long stickyMs,
+      @Value("${spring.datasource.replica.max-lag-ms:1000}") long maxLagMs,
+      @Value("${spring.datasource.replica.check-interval-ms:1000}") long checkIntervalMs) {
+    this(stickyMs >= 0 ? stickyMs : maxLagMs + checkIntervalMs);
+  }
+
+  ReadReplicaRouting(long stickyMs) {
+    this.stickyNanos = TimeUnit.MILLISECONDS.toNanos(stickyMs);
+    this.allStickyUntil = System.nanoTime();
+  }
+
+  /**
+   * Pins reads of the site to the primary once the current transaction commits, or right away
+   * when there is no transaction.
+   *
+   * @param siteId written to
+   */
+  public void recordWriteAfterCommit(String siteId) {
+    runAfterCommit(() -> stickyUntil.put(siteId, System.nanoTime() + stickyNanos));
+  }
+
+  /**
+   * Pins reads of every site to the primary once the current transaction commits, used when the
+   * site of a change cannot be resolved.
+   */
+  public void recordWriteToAllSitesAfterCommit() {
+    runAfterCommit(() -> allStickyUntil = System.nanoTime() + stickyNanos);
+  }
+
+  /**
+   * Runs the rest of the current transaction on the primary when the site has been written to
+   * within the sticky window. Has to be called before the transaction's first statement.
+   *
+   * @param siteId about to be read
+   */
+  public void usePrimaryIfRecentlyWritten(String siteId) {
+    if (recentlyWritten(siteId) && TransactionSynchronizationManager.isSynchronizationActive()
+        && !isPrimaryRequired()) {
+      TransactionSynchronizationManager.bindResource(PRIMARY_REQUIRED, Boolean.TRUE);
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          TransactionSynchronizationManager.unbindResourceIfPossible(PRIMARY_REQUIRED);
+        }
+      });
+    }
+  }
+
+  boolean recentlyWritten(String siteId) {
+    long now = System.nanoTime();
+    if (now - allStickyUntil < 0) {
+      return true;
+    }
+    Long until = stickyUntil.get(siteId);
+    if (until == null) {
+      return false;
+    }
+    if (now - until < 0) {
+      return true;
+    }
+    stickyUntil.remove(siteId, until);
+    return false;
+  }
+
+  static boolean isPrimaryRequired() {
+    return TransactionSynchronizationManager.hasResource(PRIMARY_REQUIRED);
+  }
+
+  private static void runAfterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
+  }
+}
@@ -0,0 +1,61 @@
+package com.domain_name.fulfillment.configuration.api.persistence;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Hands out replica connections to read-only transactions and primary connections to everything
+ * else. The replica is skipped while {@link ReplicaStatus} reports it lagging or down, and for
+ * transactions that {@link ReadReplicaRouting} pinned to the primary after a recent write. A
+ * replica that refuses a connection is marked down and the primary serves the transaction.
+ *
+ * <p>Has to sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * so the connection is only taken once the transaction, and its read-only flag, has begun.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractDataSource {
+
+  private final DataSource primary;
+  private final DataSource replica;
+  private final ReplicaStatus replicaStatus;
+
+  public ReadReplicaRoutingDataSource(DataSource primary, DataSource replica,
+      ReplicaStatus replicaStatus) {
+    this.primary = primary;
+    this.replica = replica;
+    this.replicaStatus = replicaStatus;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    if (useReplica()) {
+      try {
+        return replica.getConnection();
+      } catch (SQLException ex) {
+        replicaStatus.markUnavailable(ex);
+      }
+    }
+    return primary.getConnection();
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    if (useReplica()) {
+      try {
+        return replica.getConnection(username, password);
+      } catch (SQLException ex) {
+        replicaStatus.markUnavailable(ex);
+      }
+    }
+    return primary.getConnection(username, password);
+  }
+
+  private boolean useReplica() {
+    return TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+        && !ReadReplicaRouting.isPrimaryRequired() && replicaStatus.isUsable();
+  }
+}
@@ -0,0 +1,218 @@
+package com.domain_name.fulfillment.configuration.api.persistence;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ReadReplicaRoutingDataSourceTest {
+
+  private static final String SITE_ID = "domain_name-AT";
+
+  DataSource primary;
+
+  DataSource replica;
+
+  Connection primaryConnection;
+
+  Connection replicaConnection;
+
+  ReplicaStatus replicaStatus;
+
+  ReadReplicaRouting routing;
+
+  ReadReplicaRoutingDataSource dataSource;
+
+  @BeforeEach
+  void setup() throws Exception {
+    primary = Mockito.mock(DataSource.class);
+    replica = Mockito.mock(DataSource.class);
+    primaryConnection = Mockito.mock(Connection.class);
+    replicaConnection = Mockito.mock(Connection.class);
+    Mockito.when(primary.getConnection()).thenReturn(primaryConnection);
+    Mockito.when(replica.getConnection()).thenReturn(replicaConnection);
+    replicaStatus = new ReplicaStatus(replica, 1000, 1000, new SimpleMeterRegistry());
+    replicaStatus.update(0);
+    routing = new ReadReplicaRouting(60000);
+    dataSource = new ReadReplicaRoutingDataSource(primary, replica, replicaStatus);
+    TransactionSynchronizationManager.initSynchronization();
+  }
+
+  @AfterEach
+  void tearDown() {
+    TransactionSynchronizationManager.getSynchronizations()
+        .forEach(synchronization -> synchronization.afterCompletion(
+            TransactionSynchronization.STATUS_COMMITTED));
+    TransactionSynchronizationManager.clear();
+  }
+
+  private static void recordCommittedWrite(ReadReplicaRouting routing, String siteId) {
+    TransactionSynchronizationManager.clearSynchronization();
+    routing.recordWriteAfterCommit(siteId);
+    TransactionSynchronizationManager.initSynchronization();
+  }
+
+  @Test
+  void testReadOnlyTransactionUsesReplica() throws Exception {
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+    Assertions.assertSame(replicaConnection, dataSource.getConnection());
+  }
+
+  @Test
+  void testReadWriteTransactionUsesPrimary() throws Exception {
+    Assertions.assertSame(primaryConnection, dataSource.getConnection());
+    Mockito.verifyNoInteractions(replica);
+  }
+
+  @Test
+  void testReplicaIsNotUsedBeforeFirstCheck() throws Exception {
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    ReadReplicaRoutingDataSource unchecked = new ReadReplicaRoutingDataSource(primary, replica,
+        new ReplicaStatus(replica, 1000, 1000, new SimpleMeterRegistry()));
+
+    Assertions.assertSame(primaryConnection, unchecked.getConnection());
+  }
+
+  @Test
+  void testLaggingReplicaFallsBackToPrimary() throws Exception {
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    replicaStatus.update(1001);
+
+    Assertions.assertSame(primaryConnection, dataSource.getConnection());
+
+    replicaStatus.update(1000);
+
+    Assertions.assertSame(replicaConnection, dataSource.getConnection());
+  }
+
+  @Test
+  void testUnavailableReplicaFallsBackToPrimary() throws Exception {
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    Mockito.when(replica.getConnection())
+        .thenThrow(new SQLTransientConnectionException("Connection is not available"));
+
+    Assertions.assertSame(primaryConnection, dataSource.getConnection());
+    Assertions.assertFalse(replicaStatus.isUsable());
+    Assertions.assertSame(primaryConnection, dataSource.getConnection());
+    Mockito.verify(replica, Mockito.times(1)).getConnection();
+  }
+
+  @Test
+  void testFailedCheckMarksReplicaUnavailable() throws Exception {
+    Mockito.when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+    replicaStatus.check();
+
+    Assertions.assertFalse(replicaStatus.isUsable());
+  }
+
+  @Test
+  void testChecksRunOnTheirOwnThreadAndSurviveFailures() throws Exception {
+    Mockito.when(replica.getConnection()).thenThrow(new IllegalStateException("pool closed"))
+        .thenReturn(replicaConnection);
+    AtomicReference<String> checkThread = new AtomicReference<>();
+    Mockito.when(replicaConnection.createStatement()).thenAnswer(invocation -> {
+      checkThread.set(Thread.currentThread().getName());
+      throw new SQLException("Connection refused");
+    });
+    ReplicaStatus scheduled = new ReplicaStatus(replica, 1000, 10, new SimpleMeterRegistry());
+
+    scheduled.start();
+    try {
+      Mockito.verify(replicaConnection, Mockito.timeout(5000)).createStatement();
+    } finally {
+      scheduled.stop();
+    }
+
+    Assertions.assertEquals("replica-status", checkThread.get());
+    Assertions.assertFalse(scheduled.isUsable());
+  }
+
+  @Test
+  void testReplicaWithoutWalReceiverIsNotUsed() throws Exception {
+    Statement statement = Mockito.mock(Statement.class);
+    ResultSet resultSet = Mockito.mock(ResultSet.class);
+    Mockito.when(replicaConnection.createStatement()).thenReturn(statement);
+    Mockito.when(statement.executeQuery(Mockito.anyString())).thenReturn(resultSet);
+    Mockito.when(resultSet.next()).thenReturn(true);
+    Mockito.when(resultSet.wasNull()).thenReturn(true);
+
+    replicaStatus.check();
+
+    Assertions.assertFalse(replicaStatus.isUsable());
+  }
+
+  @Test
+  void testStickyWindowDefaultsToMaxLagPlusCheckInterval() {
+    ReadReplicaRouting derived = new ReadReplicaRouting(-1, 0, 60000);
+    ReadReplicaRouting configured = new ReadReplicaRouting(0, 0, 60000);
+
+    recordCommittedWrite(derived, SITE_ID);
+    recordCommittedWrite(configured, SITE_ID);
+
+    Assertions.assertTrue(derived.recentlyWritten(SITE_ID));
+    Assertions.assertFalse(configured.recentlyWritten(SITE_ID));
+  }
+
+  @Test
+  void testRecentlyWrittenSiteIsReadFromPrimary() throws Exception {
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    recordCommittedWrite(routing, SITE_ID);
+
+    routing.usePrimaryIfRecentlyWritten("domain_name-DE");
+    Assertions.assertSame(replicaConnection, dataSource.getConnection());
+
+    routing.usePrimaryIfRecentlyWritten(SITE_ID);
+    Assertions.assertSame(primaryConnection, dataSource.getConnection());
+  }
+
+  @Test
+  void testWriteIsOnlyRecordedOnCommit() {
+    routing.recordWriteAfterCommit(SITE_ID);
+
+    Assertions.assertFalse(routing.recentlyWritten(SITE_ID));
+
+    TransactionSynchronizationManager.getSynchronizations()
+        .forEach(TransactionSynchronization::afterCommit);
+
+    Assertions.assertTrue(routing.recentlyWritten(SITE_ID));
+  }
+
+  @Test
+  void testStickinessExpires() {
+    ReadReplicaRouting expiring = new ReadReplicaRouting(0);
+
+    recordCommittedWrite(expiring, SITE_ID);
+
+    Assertions.assertFalse(expiring.recentlyWritten(SITE_ID));
+  }
+
+  @Test
+  void testPrimaryIsReleasedAfterCompletion() {
+    recordCommittedWrite(routing, SITE_ID);
+
+    routing.usePrimaryIfRecentlyWritten(SITE_ID);
+    Assertions.assertTrue(ReadReplicaRouting.isPrimaryRequired());
+
+    TransactionSynchronizationManager.getSynchronizations()
+        .forEach(synchronization -> synchronization.afterCompletion(
+            TransactionSynchronization.STATUS_COMMITTED));
+
+    Assertions.assertFalse(ReadReplicaRouting.isPrimaryRequired());
+  }
+}
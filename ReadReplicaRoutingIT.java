@@ -0,0 +1,106 @@
+package com.domain_name.fulfillment.configuration.api.persistence;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Runs the routing against two local databases standing in for the primary and the replica, and
+ * tells them apart by database name. Replication itself is not exercised, so the replica is
+ * always reported as caught up.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ReadReplicaDataSourceConfiguration.class, ReadReplicaRouting.class,
+    SimpleMeterRegistry.class})
+@Testcontainers
+class ReadReplicaRoutingIT {
+
+  private static final String SITE_ID = "domain_name-AT";
+
+  @Container
+  static PostgreSQLContainer<?> primary = new PostgreSQLContainer<>("postgres:13-alpine")
+      .withDatabaseName("primary");
+
+  @Container
+  static PostgreSQLContainer<?> replica = new PostgreSQLContainer<>("postgres:13-alpine")
+      .withDatabaseName("replica");
+
+  @DynamicPropertySource
+  static void datasourceProperties(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", primary::getJdbcUrl);
+    registry.add("spring.datasource.hikari.jdbc-url", primary::getJdbcUrl);
+    registry.add("spring.datasource.hikari.username", primary::getUsername);
+    registry.add("spring.datasource.hikari.password", primary::getPassword);
+    registry.add("spring.datasource.replica.url", replica::getJdbcUrl);
+    registry.add("spring.datasource.replica.hikari.username", replica::getUsername);
+    registry.add("spring.datasource.replica.hikari.password", replica::getPassword);
+    registry.add("spring.datasource.replica.sticky-ms", () -> "60000");
+  }
+
+  @Autowired
+  EntityManager entityManager;
+
+  @Autowired
+  PlatformTransactionManager transactionManager;
+
+  @Autowired
+  ReplicaStatus replicaStatus;
+
+  @Autowired
+  ReadReplicaRouting routing;
+
+  @BeforeEach
+  void setup() {
+    replicaStatus.check();
+  }
+
+  private String currentDatabase(boolean readOnly, Runnable beforeQuery) {
+    TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+    transaction.setReadOnly(readOnly);
+    return transaction.execute(status -> {
+      beforeQuery.run();
+      return (String) entityManager.createNativeQuery("select current_database()")
+          .getSingleResult();
+    });
+  }
+
+  @Test
+  void testReadOnlyTransactionReadsFromReplica() {
+    Assertions.assertTrue(replicaStatus.isUsable());
+    Assertions.assertEquals("replica", currentDatabase(true, () -> { }));
+  }
+
+  @Test
+  void testReadWriteTransactionUsesPrimary() {
+    Assertions.assertEquals("primary", currentDatabase(false, () -> { }));
+  }
+
+  @Test
+  void testSiteIsReadFromPrimaryAfterWrite() {
+    new TransactionTemplate(transactionManager)
+        .executeWithoutResult(status -> routing.recordWriteAfterCommit(SITE_ID));
+
+    Assertions.assertEquals("primary", currentDatabase(true,
+        () -> routing.usePrimaryIfRecentlyWritten(SITE_ID)));
+    Assertions.assertEquals("replica", currentDatabase(true,
+        () -> routing.usePrimaryIfRecentlyWritten("domain_name-DE")));
+  }
+}
@@ -0,0 +1,139 @@
+package com.domain_name.fulfillment.configuration.api.persistence;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tracks whether the read replica may serve reads. The replication lag is polled every
+ * {@code spring.datasource.replica.check-interval-ms} and the replica is only used while it is
+ * reachable and at most {@code spring.datasource.replica.max-lag-ms} behind. It starts out
+ * unusable, so reads stay on the primary until the first check has passed.
+ *
+ * <p>The checks run on a thread of their own rather than with {@code @Scheduled}. The shared
+ * scheduling thread also runs jobs that block on SFCC, and a check held up behind them would let
+ * reads go to a replica that fell behind by more than the sticky window of
+ * {@link ReadReplicaRouting} allows for.
+ */
+@Slf4j
+public class ReplicaStatus {
+
+  public static final String LAG_METRIC = "jdbc.replica.lag";
+  public static final String USABLE_METRIC = "jdbc.replica.usable";
+
+  static final long UNREACHABLE = -1;
+
+  /**
+   * A replica that has replayed everything it received is not lagging, however old its last
+   * replayed transaction is, as long as it is still receiving WAL. Without a WAL receiver it
+   * has stopped following the primary and its lag is unknown, returned as null. A database
+   * that is not in recovery has no lag at all.
+   */
+  private static final String LAG_QUERY = "select case"
+      + " when not pg_is_in_recovery() then 0"
+      + " when not exists (select 1 from pg_stat_wal_receiver) then null"
+      + " when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0"
+      + " else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()) * 1000, 0)"
+      + " end";
+
+  private final DataSource replica;
+  private final long maxLagMs;
+  private final long checkIntervalMs;
+  private final AtomicLong lagMs = new AtomicLong(UNREACHABLE);
+  private volatile boolean usable;
+
+  private ScheduledExecutorService scheduler;
+
+  public ReplicaStatus(DataSource replica, long maxLagMs, long checkIntervalMs,
+      MeterRegistry meterRegistry) {
+    this.replica = replica;
+    this.maxLagMs = maxLagMs;
+    this.checkIntervalMs = checkIntervalMs;
+    Gauge.builder(LAG_METRIC, lagMs, AtomicLong::get)
+        .baseUnit("milliseconds")
+        .register(meterRegistry);
+    Gauge.builder(USABLE_METRIC, this, status -> status.isUsable() ? 1 : 0)
+        .register(meterRegistry);
+  }
+
+  public boolean isUsable() {
+    return usable;
+  }
+
+  @PostConstruct
+  void start() {
+    scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "replica-status");
+      thread.setDaemon(true);
+      return thread;
+    });
+    scheduler.scheduleWithFixedDelay(this::check, 0, checkIntervalMs, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  void stop() {
+    scheduler.shutdownNow();
+  }
+
+  public void check() {
+    try (Connection connection = replica.getConnection();
+         Statement statement = connection.createStatement();
+         ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+      resultSet.next();
+      long lag = resultSet.getLong(1);
+      if (resultSet.wasNull()) {
+        markNotReplicating();
+      } else {
+        update(lag);
+      }
+    } catch (SQLException | RuntimeException ex) {
+      // a check that throws would end the scheduled checks, so any failure only marks the replica
+      markUnavailable(ex);
+    }
+  }
+
+  /**
+   * Keeps reads on the primary while the replica is not receiving WAL, so it cannot catch up.
+   */
+  void markNotReplicating() {
+    lagMs.set(UNREACHABLE);
+    if (usable) {
+      log.warn("Read replica is not receiving WAL from the primary, reads go to the primary");
+    }
+    usable = false;
+  }
+
+  void update(long lag) {
+    lagMs.set(lag);
+    boolean withinLag = lag <= maxLagMs;
+    if (withinLag != usable) {
+      log.info("Read replica is {} ({} ms behind, {} ms tolerated)",
+          withinLag ? "in use" : "lagging, reads go to the primary", lag, maxLagMs);
+    }
+    usable = withinLag;
+  }
+
+  /**
+   * Keeps reads on the primary until the next successful check.
+   */
+  public void markUnavailable(Exception ex) {
+    lagMs.set(UNREACHABLE);
+    if (usable) {
+      log.warn("Read replica is unavailable, reads go to the primary", ex);
+    }
+    usable = false;
+  }
+}
@@ -0,0 +1,23 @@
+package com.domain_name.fulfillment.configuration.api.sfcc;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+/**
+ * SFCC OCAPI data resources of the jobs that import the shipping methods. Like every Feign
+ * client of the service, it is authorized by the shared {@code feign.oauth2} interceptor.
+ */
+@FeignClient(name = "sfcc-jobs", url = "${sfcc.base-url.eu}")
+public interface SFCCJobClient {
+
+  @PostMapping(value = "${sfcc.job-execution-url}", consumes = MediaType.APPLICATION_JSON_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  SFCCJobExecution executeJob(@RequestBody SFCCJobExecutionRequest request);
+
+  @PostMapping(value = "${sfcc.job-status-url}", consumes = MediaType.APPLICATION_JSON_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  SFCCJobExecutionSearchResult searchJobExecutions(
+      @RequestBody SFCCJobExecutionSearchRequest request);
+}
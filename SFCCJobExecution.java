@@ -0,0 +1,43 @@
+package com.domain_name.fulfillment.configuration.api.sfcc;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Job execution as returned by the SFCC job_execution_search resource.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class SFCCJobExecution {
+
+  public static final String EXECUTION_STATUS_FINISHED = "finished";
+  public static final String EXECUTION_STATUS_ABORTED = "aborted";
+  public static final String STATUS_OK = "OK";
+
+  private String id;
+
+  @JsonProperty("execution_status")
+  private String executionStatus;
+
+  private String status;
+
+  @JsonIgnore
+  public boolean isDone() {
+    return EXECUTION_STATUS_FINISHED.equals(executionStatus)
+        || EXECUTION_STATUS_ABORTED.equals(executionStatus);
+  }
+
+  @JsonIgnore
+  public boolean isSuccessful() {
+    return EXECUTION_STATUS_FINISHED.equals(executionStatus) && STATUS_OK.equals(status);
+  }
+}
@@ -0,0 +1,45 @@
+package com.domain_name.fulfillment.configuration.api.sfcc;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Body of the SFCC job executions resource, holding the parameters the job is run with.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SFCCJobExecutionRequest {
+
+  static final String IMPORT_FILE = "ImportFile";
+  static final String IMPORT_MODE = "ImportMode";
+  static final String IMPORT_MODE_MERGE = "MERGE";
+
+  private List<Parameter> parameters;
+
+  /**
+   * @param fileName uploaded to the shipping methods WebDAV folder
+   * @return run of the import job on that file only, in merge mode
+   */
+  public static SFCCJobExecutionRequest mergeImport(String fileName) {
+    return SFCCJobExecutionRequest.builder()
+        .parameters(List.of(new Parameter(IMPORT_FILE, fileName),
+            new Parameter(IMPORT_MODE, IMPORT_MODE_MERGE)))
+        .build();
+  }
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Parameter {
+
+    private String name;
+
+    private String value;
+  }
+}
@@ -0,0 +1,16 @@
+package com.domain_name.fulfillment.configuration.api.sfcc;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Looks up several SFCC job executions with a single job_execution_search call.
+ */
+public interface SFCCJobExecutionSearch {
+
+  /**
+   * @param executionIds of the job executions to be looked up
+   * @return the executions found, executions unknown to SFCC are left out
+   */
+  List<SFCCJobExecution> searchJobExecutions(Collection<String> executionIds);
+}
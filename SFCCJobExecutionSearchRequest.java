@@ -0,0 +1,43 @@
+package com.domain_name.fulfillment.configuration.api.sfcc;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Body of the SFCC job_execution_search resource.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SFCCJobExecutionSearchRequest {
+
+  private static final String SELECT_ALL = "(**)";
+
+  private Map<String, Object> query;
+
+  private String select;
+
+  private int count;
+
+  /**
+   * @param executionIds of the job executions to be returned
+   * @return search for exactly these executions, in a single page
+   */
+  public static SFCCJobExecutionSearchRequest byIds(Collection<String> executionIds) {
+    return SFCCJobExecutionSearchRequest.builder()
+        .query(Map.of("term_query", Map.of(
+            "fields", List.of("id"),
+            "operator", "one_of",
+            "values", List.copyOf(executionIds))))
+        .select(SELECT_ALL)
+        .count(executionIds.size())
+        .build();
+  }
+}
@@ -0,0 +1,25 @@
+package com.domain_name.fulfillment.configuration.api.sfcc;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Page of job executions returned by the SFCC job_execution_search resource.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class SFCCJobExecutionSearchResult {
+
+  private List<SFCCJobExecution> hits;
+
+  private int total;
+}
@@ -0,0 +1,31 @@
+package com.domain_name.fulfillment.configuration.api.sfcc;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.stereotype.Service;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Looks up the job executions tracked by {@link SFCCJobStatusTracker} through the SFCC
+ * job_execution_search resource, one call per batch of executions.
+ */
+@Service
+@RequiredArgsConstructor
+public class SFCCJobExecutionSearchService implements SFCCJobExecutionSearch {
+
+  private final SFCCJobClient jobClient;
+
+  @Override
+  public List<SFCCJobExecution> searchJobExecutions(Collection<String> executionIds) {
+    if (executionIds.isEmpty()) {
+      return List.of();
+    }
+    return Optional.ofNullable(jobClient.searchJobExecutions(
+            SFCCJobExecutionSearchRequest.byIds(executionIds)))
+        .map(SFCCJobExecutionSearchResult::getHits)
+        .orElse(List.of());
+  }
+}
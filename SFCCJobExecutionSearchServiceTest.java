@@ -0,0 +1,49 @@
+package com.domain_name.fulfillment.configuration.api.sfcc;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+class SFCCJobExecutionSearchServiceTest {
+
+  SFCCJobClient jobClient = Mockito.mock(SFCCJobClient.class);
+
+  SFCCJobExecutionSearchService searchService = new SFCCJobExecutionSearchService(jobClient);
+
+  @Test
+  void testSearchesExecutionsByIdInOnePage() {
+    SFCCJobExecution finished = SFCCJobExecution.builder().id("1").executionStatus("finished")
+        .status("OK").build();
+    Mockito.when(jobClient.searchJobExecutions(Mockito.any()))
+        .thenReturn(SFCCJobExecutionSearchResult.builder().hits(List.of(finished)).total(1)
+            .build());
+    ArgumentCaptor<SFCCJobExecutionSearchRequest> request = ArgumentCaptor
+        .forClass(SFCCJobExecutionSearchRequest.class);
+
+    List<SFCCJobExecution> executions = searchService.searchJobExecutions(List.of("1", "2"));
+
+    Mockito.verify(jobClient).searchJobExecutions(request.capture());
+    Assertions.assertEquals(List.of(finished), executions);
+    Assertions.assertEquals(2, request.getValue().getCount());
+    Assertions.assertEquals(Map.of("fields", List.of("id"), "operator", "one_of",
+        "values", List.of("1", "2")), request.getValue().getQuery().get("term_query"));
+  }
+
+  @Test
+  void testUnknownExecutionsAreLeftOut() {
+    Mockito.when(jobClient.searchJobExecutions(Mockito.any()))
+        .thenReturn(SFCCJobExecutionSearchResult.builder().total(0).build());
+
+    Assertions.assertEquals(List.of(), searchService.searchJobExecutions(List.of("1")));
+  }
+
+  @Test
+  void testNoCallWithoutExecutions() {
+    Assertions.assertEquals(List.of(), searchService.searchJobExecutions(List.of()));
+    Mockito.verifyNoInteractions(jobClient);
+  }
+}
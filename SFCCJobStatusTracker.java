@@ -0,0 +1,146 @@
+package com.domain_name.fulfillment.configuration.api.sfcc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.domain_name.fulfillment.configuration.api.logging.MDCContext;
+import com.google.common.collect.Lists;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tracks the SFCC job executions that have been started until they are done. Instead of every
+ * caller parking a thread between retries, all the outstanding executions are polled together
+ * from one scheduler thread with batched job_execution_search calls, and callers are notified
+ * through a {@link CompletableFuture}.
+ */
+@Slf4j
+@Component
+public class SFCCJobStatusTracker {
+
+  public static final String IN_FLIGHT_METRIC = "sfcc.job.status.in.flight";
+  public static final String LATENCY_METRIC = "sfcc.job.status.latency";
+
+  private final Map<String, TrackedJob> trackedJobs = new ConcurrentHashMap<>();
+  private final SFCCJobExecutionSearch jobExecutionSearch;
+  private final MeterRegistry meterRegistry;
+  private final long pollDelayMs;
+  private final long timeoutMs;
+  private final int batchSize;
+
+  private ScheduledExecutorService scheduler;
+
+  public SFCCJobStatusTracker(SFCCJobExecutionSearch jobExecutionSearch,
+      MeterRegistry meterRegistry,
+      @Value("${sfcc.job-status-retry.max-attempts:10}") int maxAttempts,
+      @Value("${sfcc.job-status-retry.delay-ms:500}") long pollDelayMs,
+      @Value("${sfcc.job-status-retry.batch-size:50}") int batchSize) {
+    this.jobExecutionSearch = jobExecutionSearch;
+    this.meterRegistry = meterRegistry;
+    this.pollDelayMs = pollDelayMs;
+    this.timeoutMs = maxAttempts * pollDelayMs;
+    this.batchSize = batchSize;
+    Gauge.builder(IN_FLIGHT_METRIC, trackedJobs, Map::size).register(meterRegistry);
+  }
+
+  @PostConstruct
+  void start() {
+    scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "sfcc-job-status");
+      thread.setDaemon(true);
+      return thread;
+    });
+    scheduler.scheduleWithFixedDelay(this::poll, pollDelayMs, pollDelayMs,
+        TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  void stop() {
+    scheduler.shutdownNow();
+    trackedJobs.values().forEach(job -> job.future.cancel(false));
+    trackedJobs.clear();
+  }
+
+  /**
+   * Starts tracking a job execution. The future completes with the execution once SFCC reports
+   * it finished or aborted, or exceptionally with a {@link TimeoutException} when it is still
+   * running after the configured attempts.
+   *
+   * @param executionId returned by SFCC when the job was started
+   * @return the execution once it is done
+   */
+  public CompletableFuture<SFCCJobExecution> track(String executionId) {
+    return trackedJobs.computeIfAbsent(executionId,
+        id -> new TrackedJob(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs)))
+        .future;
+  }
+
+  void poll() {
+    if (trackedJobs.isEmpty()) {
+      return;
+    }
+    for (List<String> batch : Lists.partition(new ArrayList<>(trackedJobs.keySet()), batchSize)) {
+      try {
+        jobExecutionSearch.searchJobExecutions(batch).stream()
+            .filter(SFCCJobExecution::isDone)
+            .forEach(execution -> complete(execution.getId(), execution));
+      } catch (RuntimeException ex) {
+        log.warn("Error searching SFCC job executions {} : {}", batch, ex);
+      }
+    }
+    expire();
+  }
+
+  private void complete(String executionId, SFCCJobExecution execution) {
+    TrackedJob job = trackedJobs.remove(executionId);
+    if (job == null) {
+      return;
+    }
+    record(job, execution.isSuccessful() ? "success" : "failure");
+    job.context.run(() -> job.future.complete(execution));
+  }
+
+  private void expire() {
+    long now = System.nanoTime();
+    trackedJobs.forEach((executionId, job) -> {
+      if (now - job.deadline >= 0 && trackedJobs.remove(executionId, job)) {
+        record(job, "timeout");
+        job.context.run(() -> job.future.completeExceptionally(new TimeoutException(
+            "SFCC job execution " + executionId + " not done after " + timeoutMs + " ms")));
+      }
+    });
+  }
+
+  private void record(TrackedJob job, String outcome) {
+    Timer.builder(LATENCY_METRIC).tag("outcome", outcome).register(meterRegistry)
+        .record(System.nanoTime() - job.startTime, TimeUnit.NANOSECONDS);
+  }
+
+  private static final class TrackedJob {
+
+    private final long startTime = System.nanoTime();
+    private final long deadline;
+    private final CompletableFuture<SFCCJobExecution> future = new CompletableFuture<>();
+    // dependent stages run on the polling thread, with the MDC of the request that started the job
+    private final MDCContext context = MDCContext.capture();
+
+    private TrackedJob(long deadline) {
+      this.deadline = deadline;
+    }
+  }
+}
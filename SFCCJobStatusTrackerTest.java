@@ -0,0 +1,110 @@
+package com.domain_name.fulfillment.configuration.api.sfcc;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.slf4j.MDC;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SFCCJobStatusTrackerTest {
+
+  SFCCJobExecutionSearch jobExecutionSearch;
+
+  SimpleMeterRegistry meterRegistry;
+
+  SFCCJobStatusTracker tracker;
+
+  @BeforeEach
+  void setup() {
+    jobExecutionSearch = Mockito.mock(SFCCJobExecutionSearch.class);
+    meterRegistry = new SimpleMeterRegistry();
+    tracker = new SFCCJobStatusTracker(jobExecutionSearch, meterRegistry, 10, 500, 2);
+  }
+
+  private static SFCCJobExecution execution(String id, String executionStatus, String status) {
+    return SFCCJobExecution.builder().id(id).executionStatus(executionStatus).status(status)
+        .build();
+  }
+
+  @Test
+  void testPollCompletesFinishedJobsInBatches() throws Exception {
+    CompletableFuture<SFCCJobExecution> first = tracker.track("1");
+    CompletableFuture<SFCCJobExecution> second = tracker.track("2");
+    CompletableFuture<SFCCJobExecution> running = tracker.track("3");
+    Mockito.when(jobExecutionSearch.searchJobExecutions(Mockito.anyCollection()))
+        .thenReturn(List.of(execution("1", "finished", "OK"), execution("2", "aborted", "ERROR"),
+            execution("3", "running", null)));
+
+    tracker.poll();
+
+    Mockito.verify(jobExecutionSearch, Mockito.times(2)).searchJobExecutions(
+        Mockito.anyCollection());
+    Assertions.assertTrue(first.get().isSuccessful());
+    Assertions.assertFalse(second.get().isSuccessful());
+    Assertions.assertFalse(running.isDone());
+    Assertions.assertEquals(1.0, meterRegistry.get(SFCCJobStatusTracker.IN_FLIGHT_METRIC)
+        .gauge().value());
+    Assertions.assertEquals(1, meterRegistry.get(SFCCJobStatusTracker.LATENCY_METRIC)
+        .tag("outcome", "success").timer().count());
+  }
+
+  @Test
+  void testDependentStagesRunWithContextOfTrackingRequest() throws Exception {
+    MDC.put("siteId", "domain_name-AT");
+    CompletableFuture<String> siteId = tracker.track("1").thenApply(execution -> MDC.get("siteId"));
+    MDC.clear();
+    Mockito.when(jobExecutionSearch.searchJobExecutions(Mockito.anyCollection()))
+        .thenReturn(List.of(execution("1", "finished", "OK")));
+
+    tracker.poll();
+
+    Assertions.assertEquals("domain_name-AT", siteId.get());
+    Assertions.assertNull(MDC.get("siteId"));
+  }
+
+  @Test
+  void testTrackSameExecutionSharesFuture() {
+    Assertions.assertSame(tracker.track("1"), tracker.track("1"));
+  }
+
+  @Test
+  void testPollDoesNotCallSfccWithoutTrackedJobs() {
+    tracker.poll();
+
+    Mockito.verifyNoInteractions(jobExecutionSearch);
+  }
+
+  @Test
+  void testPollKeepsJobsWhenSearchFails() {
+    CompletableFuture<SFCCJobExecution> future = tracker.track("1");
+    Mockito.when(jobExecutionSearch.searchJobExecutions(Mockito.anyCollection()))
+        .thenThrow(new IllegalStateException("unavailable"));
+
+    tracker.poll();
+
+    Assertions.assertFalse(future.isDone());
+  }
+
+  @Test
+  void testPollTimesOutJobsStillRunning() {
+    tracker = new SFCCJobStatusTracker(jobExecutionSearch, meterRegistry, 0, 500, 2);
+    CompletableFuture<SFCCJobExecution> future = tracker.track("1");
+    Mockito.when(jobExecutionSearch.searchJobExecutions(Mockito.anyCollection()))
+        .thenReturn(List.of(execution("1", "running", null)));
+
+    tracker.poll();
+
+    ExecutionException exception = Assertions.assertThrows(ExecutionException.class,
+        future::get);
+    Assertions.assertInstanceOf(TimeoutException.class, exception.getCause());
+    Assertions.assertEquals(1, meterRegistry.get(SFCCJobStatusTracker.LATENCY_METRIC)
+        .tag("outcome", "timeout").timer().count());
+  }
+}
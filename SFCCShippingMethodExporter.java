@@ -0,0 +1,74 @@
+package com.domain_name.fulfillment.configuration.api.sfcc;
+
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.domain_name.fulfillment.configuration.api.shipping.method.ShippingMethodRepository;
+import com.google.common.collect.Lists;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Hands changed shipping methods to SFCC page by page, either one by one through
+ * {@link SFCCService#syncShippingMethod} or written into the SFCC shipping import XML. Each page
+ * is loaded with one query, its collections are batch fetched together, and the persistence
+ * context is cleared once the page is done, so the persistence context does not grow with the
+ * number of changes.
+ */
+@Component
+@RequiredArgsConstructor
+public class SFCCShippingMethodExporter {
+
+  /**
+   * Matches {@code hibernate.default_batch_fetch_size}, so each collection of a page is
+   * initialized with a single statement.
+   */
+  static final int PAGE_SIZE = 100;
+
+  private final ShippingMethodRepository shippingMethodRepository;
+  private final SFCCService sfccService;
+  private final EntityManager entityManager;
+
+  /**
+   * Syncs the changed shipping methods of a site the way they were synced from the request
+   * transaction before the outbox. Removed shipping methods were never synced that way, so
+   * there is nothing to do for them.
+   *
+   * @param upserted ids of the shipping methods created or updated, the ones deleted since are
+   *                 left out
+   */
+  @Transactional(readOnly = true)
+  public void syncChanges(Collection<UUID> upserted) {
+    for (List<UUID> page : Lists.partition(List.copyOf(upserted), PAGE_SIZE)) {
+      shippingMethodRepository.findAllByShippingMethodIdIn(page)
+          .forEach(sfccService::syncShippingMethod);
+      entityManager.clear();
+    }
+  }
+
+  /**
+   * Writes only the changed shipping methods of a site, to be imported in merge mode.
+   *
+   * @param upserted ids of the shipping methods created or updated, the ones deleted since are
+   *                 left out
+   * @param deleted method ids of the shipping methods removed
+   * @param outputStream the XML is written to; it is flushed but not closed
+   */
+  @Transactional(readOnly = true)
+  public void exportChanges(Collection<UUID> upserted, Collection<String> deleted,
+      OutputStream outputStream) {
+    try (SFCCShippingMethodXmlWriter writer = new SFCCShippingMethodXmlWriter(outputStream)) {
+      for (List<UUID> page : Lists.partition(List.copyOf(upserted), PAGE_SIZE)) {
+        shippingMethodRepository.findAllByShippingMethodIdIn(page).forEach(writer::write);
+        entityManager.clear();
+      }
+      deleted.forEach(writer::writeDelete);
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package com.domain_name.fulfillment.configuration.api.sfcc;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.domain_name.fulfillment.configuration.api.shipping.method.ShippingMethodEntity;
+import com.domain_name.fulfillment.configuration.api.shipping.method.ShippingMethodEntityConverterTest;
+import com.domain_name.fulfillment.configuration.api.shipping.method.ShippingMethodRepository;
+
+import jakarta.persistence.EntityManager;
+
+class SFCCShippingMethodExporterTest {
+
+  ShippingMethodRepository shippingMethodRepository;
+
+  SFCCService sfccService;
+
+  EntityManager entityManager;
+
+  SFCCShippingMethodExporter exporter;
+
+  @BeforeEach
+  void setup() {
+    shippingMethodRepository = Mockito.mock(ShippingMethodRepository.class);
+    sfccService = Mockito.mock(SFCCService.class);
+    entityManager = Mockito.mock(EntityManager.class);
+    exporter = new SFCCShippingMethodExporter(shippingMethodRepository, sfccService,
+        entityManager);
+  }
+
+  @Test
+  void testChangesAreLoadedAndClearedPageByPage() {
+    List<UUID> upserted = IntStream.range(0, SFCCShippingMethodExporter.PAGE_SIZE + 1)
+        .mapToObj(i -> UUID.randomUUID()).toList();
+    Mockito.when(shippingMethodRepository.findAllByShippingMethodIdIn(Mockito.anyCollection()))
+        .thenReturn(List.of(ShippingMethodEntityConverterTest.getEntity()));
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+    exporter.exportChanges(upserted, List.of("express"), outputStream);
+
+    Mockito.verify(shippingMethodRepository).findAllByShippingMethodIdIn(
+        upserted.subList(0, SFCCShippingMethodExporter.PAGE_SIZE));
+    Mockito.verify(shippingMethodRepository).findAllByShippingMethodIdIn(
+        upserted.subList(SFCCShippingMethodExporter.PAGE_SIZE, upserted.size()));
+    Mockito.verify(entityManager, Mockito.times(2)).clear();
+    String xml = outputStream.toString(StandardCharsets.UTF_8);
+    Assertions.assertEquals(2, xml.split("method-id=\"customId\"", -1).length - 1);
+    Assertions.assertTrue(xml.contains("<shipping-method method-id=\"express\" mode=\"delete\"/>"));
+  }
+
+  @Test
+  void testOnlyDeletesAreWrittenWithoutUpserts() {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+    exporter.exportChanges(List.of(), List.of("express"), outputStream);
+
+    Mockito.verifyNoInteractions(shippingMethodRepository, entityManager);
+    Assertions.assertTrue(outputStream.toString(StandardCharsets.UTF_8)
+        .contains("mode=\"delete\""));
+  }
+
+  @Test
+  void testChangesAreSyncedOneByOnePageByPage() {
+    List<UUID> upserted = IntStream.range(0, SFCCShippingMethodExporter.PAGE_SIZE + 1)
+        .mapToObj(i -> UUID.randomUUID()).toList();
+    ShippingMethodEntity shippingMethod = ShippingMethodEntityConverterTest.getEntity();
+    Mockito.when(shippingMethodRepository.findAllByShippingMethodIdIn(Mockito.anyCollection()))
+        .thenReturn(List.of(shippingMethod));
+
+    exporter.syncChanges(upserted);
+
+    Mockito.verify(shippingMethodRepository, Mockito.times(2))
+        .findAllByShippingMethodIdIn(Mockito.anyCollection());
+    Mockito.verify(sfccService, Mockito.times(2)).syncShippingMethod(shippingMethod);
+    Mockito.verify(entityManager, Mockito.times(2)).clear();
+  }
+}
@@ -0,0 +1,36 @@
+package com.domain_name.fulfillment.configuration.api.sfcc;
+
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import com.domain_name.fulfillment.configuration.api.shipping.method.ShippingMethodEntity;
+
+/**
+ * SHA-256 of the SFCC import XML of a shipping method. It covers exactly what is exported, so
+ * only a change SFCC never sees, such as the order of channels, leaves it unchanged.
+ */
+final class SFCCShippingMethodHash {
+
+  private SFCCShippingMethodHash() {
+  }
+
+  static String of(ShippingMethodEntity shippingMethod) {
+    MessageDigest digest = sha256();
+    try (SFCCShippingMethodXmlWriter writer = new SFCCShippingMethodXmlWriter(
+        new DigestOutputStream(OutputStream.nullOutputStream(), digest))) {
+      writer.write(shippingMethod);
+    }
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+}
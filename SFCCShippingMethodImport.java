@@ -0,0 +1,20 @@
+package com.domain_name.fulfillment.configuration.api.sfcc;
+
+import org.springframework.http.StreamingHttpOutputMessage;
+
+/**
+ * Uploads shipping method import XML to the WebDAV location of a site and runs the SFCC import
+ * job on it in merge mode, so only the shipping methods in the file are created, updated or
+ * deleted.
+ */
+public interface SFCCShippingMethodImport {
+
+  /**
+   * Returns once the import job execution finished, for example tracked with
+   * {@link SFCCJobStatusTracker}, and throws if the upload or the job failed.
+   *
+   * @param siteName the shipping methods belong to
+   * @param xml of the changed shipping methods, written when the upload is prepared
+   */
+  void importShippingMethods(String siteName, StreamingHttpOutputMessage.Body xml);
+}
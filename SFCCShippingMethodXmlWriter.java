@@ -0,0 +1,186 @@
+package com.domain_name.fulfillment.configuration.api.sfcc;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import com.domain_name.fulfillment.configuration.api.channel.ChannelEntity;
+import com.domain_name.fulfillment.configuration.api.products.type.ProductTypeEntity;
+import com.domain_name.fulfillment.configuration.api.shipping.carrier.string.CarrierStringEntity;
+import com.domain_name.fulfillment.configuration.api.shipping.method.MemberFixedPrices;
+import com.domain_name.fulfillment.configuration.api.shipping.method.ShippingMethodEntity;
+import com.domain_name.fulfillment.configuration.api.shipping.method.ShippingMethodPrice;
+
+/**
+ * Writes shipping methods in the SFCC shipping import format one at a time, so the document is
+ * never held in memory. The root element is opened on creation and closed by {@link #close()},
+ * which flushes the writer but leaves the underlying stream open. Locales and multi-valued
+ * attributes are written in sorted order, so equal shipping methods give equal bytes.
+ *
+ * <p>The element layout and custom attribute ids follow the SFCC shipping impex schema but have
+ * not been checked against an import job of the live instance, whose export mapping lives in
+ * {@link SFCCService}. The writer is only used by the opt-in merge import.
+ */
+public final class SFCCShippingMethodXmlWriter implements AutoCloseable {
+
+  public static final String NAMESPACE = "http://www.demandware.com/xml/impex/shipping/2007-03-31";
+
+  private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newFactory();
+  private static final String XML_NAMESPACE = "http://www.w3.org/XML/1998/namespace";
+
+  private final XMLStreamWriter writer;
+
+  public SFCCShippingMethodXmlWriter(OutputStream outputStream) {
+    try {
+      this.writer = OUTPUT_FACTORY.createXMLStreamWriter(outputStream,
+          StandardCharsets.UTF_8.name());
+      writer.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+      writer.writeStartElement("shipping");
+      writer.writeDefaultNamespace(NAMESPACE);
+    } catch (XMLStreamException ex) {
+      throw new IllegalStateException("Error starting the SFCC shipping method export", ex);
+    }
+  }
+
+  public void write(ShippingMethodEntity shippingMethod) {
+    try {
+      writer.writeStartElement("shipping-method");
+      writer.writeAttribute("method-id", shippingMethod.getCustomId());
+      writer.writeAttribute("default", String.valueOf(Boolean.TRUE.equals(
+          shippingMethod.getIsDefault())));
+      writeLocalized("display-name", shippingMethod.getName());
+      writeLocalized("description", shippingMethod.getDescription());
+      writeElement("online-flag", String.valueOf(Boolean.TRUE.equals(
+          shippingMethod.getEnabled())));
+      writeElement("tax-class-id", shippingMethod.getTaxClassId());
+      writePriceTable(shippingMethod.getPrices());
+      writeCustomAttributes(shippingMethod);
+      writer.writeEndElement();
+    } catch (XMLStreamException ex) {
+      throw new IllegalStateException("Error writing SFCC shipping method "
+          + shippingMethod.getShippingMethodId(), ex);
+    }
+  }
+
+  /**
+   * @param methodId of a shipping method removed from the site
+   */
+  public void writeDelete(String methodId) {
+    try {
+      writer.writeEmptyElement("shipping-method");
+      writer.writeAttribute("method-id", methodId);
+      writer.writeAttribute("mode", "delete");
+    } catch (XMLStreamException ex) {
+      throw new IllegalStateException("Error writing SFCC shipping method delete " + methodId,
+          ex);
+    }
+  }
+
+  @Override
+  public void close() {
+    try {
+      writer.writeEndElement();
+      writer.writeEndDocument();
+      writer.flush();
+      writer.close();
+    } catch (XMLStreamException ex) {
+      throw new IllegalStateException("Error ending the SFCC shipping method export", ex);
+    }
+  }
+
+  private void writePriceTable(ShippingMethodPrice prices) throws XMLStreamException {
+    if (prices == null || prices.getBaseFixedPrice() == null) {
+      return;
+    }
+    writer.writeStartElement("price-table");
+    writer.writeStartElement("amount");
+    writer.writeAttribute("order-value", "0");
+    writer.writeCharacters(prices.getBaseFixedPrice().toString());
+    writer.writeEndElement();
+    writer.writeEndElement();
+  }
+
+  private void writeCustomAttributes(ShippingMethodEntity shippingMethod)
+      throws XMLStreamException {
+    writer.writeStartElement("custom-attributes");
+    writeCustomAttribute("carrierName", shippingMethod.getCarrierName());
+    writeCustomAttribute("carrierString", shippingMethod.getCarrierString());
+    writeCustomAttribute("carrierService", shippingMethod.getCarrierService());
+    writeCustomAttribute("position", shippingMethod.getPosition());
+    writeCustomAttribute("minDaysToDeliver", shippingMethod.getMinDaysToDeliver());
+    writeCustomAttribute("maxDaysToDeliver", shippingMethod.getMaxDaysToDeliver());
+    writeCustomAttributeValues("fulfillmentTypes", shippingMethod.getFulfillmentTypes(),
+        Function.identity());
+    writeCustomAttributeValues("channels", shippingMethod.getChannels(),
+        ChannelEntity::getChannelName);
+    writeCustomAttributeValues("productTypes", shippingMethod.getProductTypes(),
+        ProductTypeEntity::getProductTypeName);
+    writeCustomAttributeValues("carrierStrings", shippingMethod.getCarrierStrings(),
+        CarrierStringEntity::getCarrierString);
+    writeCustomAttributeValues("availabilityStatus", shippingMethod.getAvailabilityStatus(),
+        Function.identity());
+    ShippingMethodPrice prices = shippingMethod.getPrices();
+    if (prices != null) {
+      writeCustomAttribute("threshold", prices.getThreshold());
+      writeCustomAttribute("shipmentUpsell", prices.getShipmentUpsell());
+      MemberFixedPrices memberFixedPrices = prices.getMemberFixedPrices();
+      if (memberFixedPrices != null) {
+        writeCustomAttribute("memberFixedPriceTier1", memberFixedPrices.getTier1());
+        writeCustomAttribute("memberFixedPriceTier2", memberFixedPrices.getTier2());
+        writeCustomAttribute("memberFixedPriceTier3", memberFixedPrices.getTier3());
+        writeCustomAttribute("memberFixedPriceTier4", memberFixedPrices.getTier4());
+      }
+    }
+    writer.writeEndElement();
+  }
+
+  private void writeLocalized(String element, Map<String, String> values)
+      throws XMLStreamException {
+    for (Map.Entry<String, String> value : new TreeMap<>(Optional.ofNullable(values)
+        .orElse(Map.of())).entrySet()) {
+      writer.writeStartElement(element);
+      writer.writeAttribute("xml", XML_NAMESPACE, "lang", value.getKey());
+      writer.writeCharacters(value.getValue());
+      writer.writeEndElement();
+    }
+  }
+
+  private void writeElement(String element, String value) throws XMLStreamException {
+    if (value != null) {
+      writer.writeStartElement(element);
+      writer.writeCharacters(value);
+      writer.writeEndElement();
+    }
+  }
+
+  private void writeCustomAttribute(String attributeId, Object value) throws XMLStreamException {
+    if (value != null) {
+      writer.writeStartElement("custom-attribute");
+      writer.writeAttribute("attribute-id", attributeId);
+      writer.writeCharacters(value.toString());
+      writer.writeEndElement();
+    }
+  }
+
+  private <T> void writeCustomAttributeValues(String attributeId, Collection<T> values,
+      Function<T, ?> mapper) throws XMLStreamException {
+    if (values == null || values.isEmpty()) {
+      return;
+    }
+    writer.writeStartElement("custom-attribute");
+    writer.writeAttribute("attribute-id", attributeId);
+    for (String value : values.stream().map(value -> String.valueOf(mapper.apply(value)))
+        .sorted().toList()) {
+      writeElement("value", value);
+    }
+    writer.writeEndElement();
+  }
+}
@@ -0,0 +1,100 @@
+package com.domain_name.fulfillment.configuration.api.sfcc;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import com.domain_name.fulfillment.configuration.api.shipping.method.ShippingMethodEntity;
+import com.domain_name.fulfillment.configuration.api.shipping.method.ShippingMethodEntityConverterTest;
+
+class SFCCShippingMethodXmlWriterTest {
+
+  private static Document write(ShippingMethodEntity... shippingMethods) throws Exception {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    try (SFCCShippingMethodXmlWriter writer = new SFCCShippingMethodXmlWriter(outputStream)) {
+      for (ShippingMethodEntity shippingMethod : shippingMethods) {
+        writer.write(shippingMethod);
+      }
+    }
+    DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+    factory.setNamespaceAware(true);
+    return factory.newDocumentBuilder()
+        .parse(new ByteArrayInputStream(outputStream.toByteArray()));
+  }
+
+  private static NodeList elements(Element parent, String name) {
+    return parent.getElementsByTagNameNS(SFCCShippingMethodXmlWriter.NAMESPACE, name);
+  }
+
+  private static Element customAttribute(Element method, String attributeId) {
+    NodeList attributes = elements(method, "custom-attribute");
+    for (int i = 0; i < attributes.getLength(); i++) {
+      Element attribute = (Element) attributes.item(i);
+      if (attributeId.equals(attribute.getAttribute("attribute-id"))) {
+        return attribute;
+      }
+    }
+    return Assertions.fail("Missing custom attribute " + attributeId);
+  }
+
+  @Test
+  void testShippingMethodsAreWrittenInImportFormat() throws Exception {
+    ShippingMethodEntity shippingMethod = ShippingMethodEntityConverterTest.getEntity();
+
+    Document document = write(shippingMethod, shippingMethod);
+
+    Element root = document.getDocumentElement();
+    Assertions.assertEquals("shipping", root.getLocalName());
+    Assertions.assertEquals(2, elements(root, "shipping-method").getLength());
+    Element method = (Element) elements(root, "shipping-method").item(0);
+    Assertions.assertEquals("customId", method.getAttribute("method-id"));
+    Assertions.assertEquals("true", method.getAttribute("default"));
+    Element displayName = (Element) elements(method, "display-name").item(0);
+    Assertions.assertEquals("de-AT", displayName.getAttributeNS(
+        "http://www.w3.org/XML/1998/namespace", "lang"));
+    Assertions.assertEquals("Standardlieferung", displayName.getTextContent());
+    Assertions.assertEquals("3.0", elements(method, "amount").item(0).getTextContent());
+    Assertions.assertEquals(2, elements(customAttribute(method, "channels"), "value")
+        .getLength());
+    Assertions.assertEquals("1.0", customAttribute(method, "memberFixedPriceTier1")
+        .getTextContent());
+    Assertions.assertEquals("0", customAttribute(method, "position").getTextContent());
+  }
+
+  @Test
+  void testDeletesAreWrittenWithDeleteMode() throws Exception {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    try (SFCCShippingMethodXmlWriter writer = new SFCCShippingMethodXmlWriter(outputStream)) {
+      writer.writeDelete("express");
+    }
+
+    Assertions.assertTrue(outputStream.toString(StandardCharsets.UTF_8).contains(
+        "<shipping-method method-id=\"express\" mode=\"delete\"/>"));
+  }
+
+  @Test
+  void testMissingValuesAreSkippedAndTextIsEscaped() throws Exception {
+    ShippingMethodEntity shippingMethod = ShippingMethodEntity.builder()
+        .customId("express")
+        .name(Map.of("en-GB", "Next day <before 12 & 1pm>"))
+        .build();
+
+    Element method = (Element) elements(write(shippingMethod).getDocumentElement(),
+        "shipping-method").item(0);
+
+    Assertions.assertEquals("Next day <before 12 & 1pm>",
+        elements(method, "display-name").item(0).getTextContent());
+    Assertions.assertEquals("false", method.getAttribute("default"));
+    Assertions.assertEquals(0, elements(method, "price-table").getLength());
+    Assertions.assertEquals(0, elements(method, "tax-class-id").getLength());
+  }
+}
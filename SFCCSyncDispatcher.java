@@ -0,0 +1,144 @@
+package com.domain_name.fulfillment.configuration.api.sfcc;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.domain_name.fulfillment.configuration.api.site.SiteIdEntity;
+import com.domain_name.fulfillment.configuration.api.site.SiteIdRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Exports the changes waiting in the SFCC sync outbox. All the changes of a site that are ready
+ * are claimed together and each changed shipping method is synced once, as it is after its last
+ * change, through {@link SFCCService#syncShippingMethod}.
+ *
+ * <p>With {@code sfcc.sync.merge-import.enabled} the changes of a site are instead coalesced into
+ * one merge import holding only the changed shipping methods. That import format has not been
+ * checked against a real SFCC import job yet, so the mode is off by default.
+ *
+ * <p>The scheduled trigger only hands the dispatch to a thread of its own, so the blocking SFCC
+ * calls never hold up the other scheduled tasks. A trigger is skipped while the previous
+ * dispatch is still running.
+ *
+ * <p>The changes are claimed and marked in short transactions of their own, so no outbox row is
+ * locked while SFCC is called. The changed shipping methods are however read from the database
+ * while SFCC is called, so a read-only connection is held for the length of the sync.
+ */
+@Slf4j
+@Component
+public class SFCCSyncDispatcher {
+
+  private final SFCCSyncOutboxService outboxService;
+  private final SiteIdRepository siteIdRepository;
+  private final SFCCShippingMethodExporter exporter;
+  private final Optional<SFCCShippingMethodImport> shippingMethodImport;
+  private final ExecutorService executor;
+  private final AtomicBoolean dispatching = new AtomicBoolean();
+
+  @Autowired
+  public SFCCSyncDispatcher(SFCCSyncOutboxService outboxService,
+      SiteIdRepository siteIdRepository,
+      SFCCShippingMethodExporter exporter,
+      Optional<SFCCShippingMethodImport> shippingMethodImport) {
+    this(outboxService, siteIdRepository, exporter, shippingMethodImport,
+        Executors.newSingleThreadExecutor(runnable -> {
+          Thread thread = new Thread(runnable, "sfcc-sync-dispatcher");
+          thread.setDaemon(true);
+          return thread;
+        }));
+  }
+
+  SFCCSyncDispatcher(SFCCSyncOutboxService outboxService, SiteIdRepository siteIdRepository,
+      SFCCShippingMethodExporter exporter,
+      Optional<SFCCShippingMethodImport> shippingMethodImport, ExecutorService executor) {
+    this.outboxService = outboxService;
+    this.siteIdRepository = siteIdRepository;
+    this.exporter = exporter;
+    this.shippingMethodImport = shippingMethodImport;
+    this.executor = executor;
+  }
+
+  @PreDestroy
+  void stop() {
+    executor.shutdownNow();
+  }
+
+  @Scheduled(fixedDelayString = "${sfcc.sync.dispatcher-delay-ms:1000}")
+  public void dispatch() {
+    if (dispatching.compareAndSet(false, true)) {
+      executor.execute(() -> {
+        try {
+          outboxService.findSiteIdsReadyToSync().forEach(this::dispatchSite);
+        } catch (RuntimeException ex) {
+          log.error("Error dispatching the SFCC sync outbox", ex);
+        } finally {
+          dispatching.set(false);
+        }
+      });
+    }
+  }
+
+  void dispatchSite(Integer siteId) {
+    List<SFCCSyncOutboxEntity> claimed = outboxService.claim(siteId);
+    if (claimed.isEmpty()) {
+      return;
+    }
+    try {
+      List<UUID> upserted = new ArrayList<>();
+      Set<String> upsertedCustomIds = new HashSet<>();
+      Set<String> deleted = new LinkedHashSet<>();
+      lastChangePerShippingMethod(claimed).forEach(change -> {
+        if (change.getOperation() == SFCCSyncOperation.DELETE) {
+          deleted.add(change.getCustomId());
+        } else {
+          upserted.add(change.getShippingMethodId());
+          upsertedCustomIds.add(change.getCustomId());
+        }
+      });
+      // a method id changed back before being exported is still in use
+      claimed.stream().map(SFCCSyncOutboxEntity::getReplacedCustomId)
+          .filter(replacedCustomId -> replacedCustomId != null
+              && !upsertedCustomIds.contains(replacedCustomId))
+          .forEach(deleted::add);
+      if (shippingMethodImport.isPresent()) {
+        String siteName = siteIdRepository.findById(siteId).map(SiteIdEntity::getName)
+            .orElseThrow(() -> new IllegalStateException("Site " + siteId + " not found"));
+        shippingMethodImport.get().importShippingMethods(siteName,
+            outputStream -> exporter.exportChanges(upserted, deleted, outputStream));
+      } else {
+        exporter.syncChanges(upserted);
+      }
+      outboxService.markSynced(claimed);
+      log.info("Synced {} shipping method changes of site {} with SFCC", claimed.size(), siteId);
+    } catch (RuntimeException ex) {
+      log.error("Error syncing shipping methods of site {} with SFCC : {}", siteId, ex);
+      outboxService.markFailed(claimed, ex.getMessage());
+    }
+  }
+
+  /**
+   * A shipping method changed several times is exported once, as it is after its last change.
+   */
+  private static Iterable<SFCCSyncOutboxEntity> lastChangePerShippingMethod(
+      List<SFCCSyncOutboxEntity> claimed) {
+    Map<UUID, SFCCSyncOutboxEntity> changes = new LinkedHashMap<>();
+    claimed.forEach(change -> changes.put(change.getShippingMethodId(), change));
+    return changes.values();
+  }
+}
@@ -0,0 +1,196 @@
+package com.domain_name.fulfillment.configuration.api.sfcc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.domain_name.fulfillment.configuration.api.site.SiteIdEntity;
+import com.domain_name.fulfillment.configuration.api.site.SiteIdRepository;
+import com.google.common.util.concurrent.MoreExecutors;
+
+@ExtendWith(SpringExtension.class)
+class SFCCSyncDispatcherTest {
+
+  private static final UUID FIRST = UUID.fromString("a47e1dd0-3a9a-44bc-ad3c-a5e7ed6d2b94");
+  private static final UUID LAST = UUID.fromString("de538b8f-de7c-4391-95df-351bd910edfe");
+
+  @Mock
+  SFCCSyncOutboxService outboxService;
+
+  @Mock
+  SiteIdRepository siteIdRepository;
+
+  @Mock
+  SFCCShippingMethodExporter exporter;
+
+  @Mock
+  SFCCShippingMethodImport shippingMethodImport;
+
+  SFCCSyncDispatcher dispatcher;
+
+  @BeforeEach
+  void setup() {
+    dispatcher = new SFCCSyncDispatcher(outboxService, siteIdRepository, exporter,
+        Optional.of(shippingMethodImport), MoreExecutors.newDirectExecutorService());
+  }
+
+  private static SFCCSyncOutboxEntity change(long id, UUID shippingMethodId,
+      SFCCSyncOperation operation) {
+    return SFCCSyncOutboxEntity.builder().id(id).siteId(1).shippingMethodId(shippingMethodId)
+        .customId("method-" + id).operation(operation).build();
+  }
+
+  private void mockSite() {
+    Mockito.when(siteIdRepository.findById(1))
+        .thenReturn(Optional.of(SiteIdEntity.builder().name("domain_name-AT").build()));
+  }
+
+  private void writeImportedXml() throws Exception {
+    ArgumentCaptor<StreamingHttpOutputMessage.Body> xml = ArgumentCaptor
+        .forClass(StreamingHttpOutputMessage.Body.class);
+    Mockito.verify(shippingMethodImport, Mockito.times(1))
+        .importShippingMethods(Mockito.eq("domain_name-AT"), xml.capture());
+    xml.getValue().writeTo(new ByteArrayOutputStream());
+  }
+
+  @Test
+  void testDispatchCoalescesSiteChangesIntoOneDeltaImport() throws Exception {
+    List<SFCCSyncOutboxEntity> claimed = List.of(
+        change(1L, FIRST, SFCCSyncOperation.UPSERT),
+        change(2L, LAST, SFCCSyncOperation.UPSERT));
+    Mockito.when(outboxService.findSiteIdsReadyToSync()).thenReturn(List.of(1));
+    Mockito.when(outboxService.claim(1)).thenReturn(claimed);
+    mockSite();
+
+    dispatcher.dispatch();
+
+    writeImportedXml();
+    Mockito.verify(exporter, Mockito.times(1)).exportChanges(Mockito.eq(List.of(FIRST, LAST)),
+        Mockito.eq(Set.of()), Mockito.any(OutputStream.class));
+    Mockito.verify(outboxService, Mockito.times(1)).markSynced(claimed);
+    Mockito.verify(outboxService, Mockito.times(0)).markFailed(Mockito.any(), Mockito.any());
+  }
+
+  @Test
+  void testDispatchExportsLastChangeOfEachShippingMethod() throws Exception {
+    List<SFCCSyncOutboxEntity> claimed = List.of(
+        change(1L, FIRST, SFCCSyncOperation.UPSERT),
+        change(2L, LAST, SFCCSyncOperation.UPSERT),
+        change(3L, FIRST, SFCCSyncOperation.DELETE));
+    Mockito.when(outboxService.claim(1)).thenReturn(claimed);
+    mockSite();
+
+    dispatcher.dispatchSite(1);
+
+    writeImportedXml();
+    Mockito.verify(exporter, Mockito.times(1)).exportChanges(Mockito.eq(List.of(LAST)),
+        Mockito.eq(Set.of("method-3")), Mockito.any(OutputStream.class));
+    Mockito.verify(outboxService, Mockito.times(1)).markSynced(claimed);
+  }
+
+  @Test
+  void testDispatchDeletesReplacedCustomIdsNoLongerInUse() throws Exception {
+    SFCCSyncOutboxEntity renamed = change(1L, FIRST, SFCCSyncOperation.UPSERT);
+    renamed.setReplacedCustomId("previous");
+    SFCCSyncOutboxEntity renamedBack = change(2L, LAST, SFCCSyncOperation.UPSERT);
+    renamedBack.setReplacedCustomId("method-2");
+    List<SFCCSyncOutboxEntity> claimed = List.of(renamed, renamedBack);
+    Mockito.when(outboxService.claim(1)).thenReturn(claimed);
+    mockSite();
+
+    dispatcher.dispatchSite(1);
+
+    writeImportedXml();
+    Mockito.verify(exporter, Mockito.times(1)).exportChanges(Mockito.eq(List.of(FIRST, LAST)),
+        Mockito.eq(Set.of("previous")), Mockito.any(OutputStream.class));
+  }
+
+  @Test
+  void testDispatchMarksFailedWhenImportFails() {
+    List<SFCCSyncOutboxEntity> claimed = List.of(change(1L, FIRST, SFCCSyncOperation.UPSERT));
+    Mockito.when(outboxService.claim(1)).thenReturn(claimed);
+    mockSite();
+    Mockito.doThrow(new IllegalStateException("job failed")).when(shippingMethodImport)
+        .importShippingMethods(Mockito.any(), Mockito.any());
+
+    dispatcher.dispatchSite(1);
+
+    Mockito.verify(outboxService, Mockito.times(0)).markSynced(Mockito.any());
+    Mockito.verify(outboxService, Mockito.times(1)).markFailed(claimed, "job failed");
+  }
+
+  @Test
+  void testDispatchDoesNothingWhenClaimedByAnotherInstance() {
+    Mockito.when(outboxService.claim(1)).thenReturn(List.of());
+
+    dispatcher.dispatchSite(1);
+
+    Mockito.verifyNoInteractions(shippingMethodImport);
+    Mockito.verify(outboxService, Mockito.times(0)).markSynced(Mockito.any());
+  }
+
+  @Test
+  void testDispatchSyncsChangesThroughSfccServiceByDefault() {
+    dispatcher = new SFCCSyncDispatcher(outboxService, siteIdRepository, exporter,
+        Optional.empty(), MoreExecutors.newDirectExecutorService());
+    List<SFCCSyncOutboxEntity> claimed = List.of(
+        change(1L, FIRST, SFCCSyncOperation.UPSERT),
+        change(2L, LAST, SFCCSyncOperation.UPSERT),
+        change(3L, FIRST, SFCCSyncOperation.UPSERT));
+    Mockito.when(outboxService.claim(1)).thenReturn(claimed);
+
+    dispatcher.dispatchSite(1);
+
+    Mockito.verify(exporter, Mockito.times(1)).syncChanges(List.of(FIRST, LAST));
+    Mockito.verify(exporter, Mockito.times(0)).exportChanges(Mockito.any(), Mockito.any(),
+        Mockito.any());
+    Mockito.verifyNoInteractions(shippingMethodImport, siteIdRepository);
+    Mockito.verify(outboxService, Mockito.times(1)).markSynced(claimed);
+  }
+
+  @Test
+  void testDispatchMarksFailedWhenSfccServiceSyncFails() {
+    dispatcher = new SFCCSyncDispatcher(outboxService, siteIdRepository, exporter,
+        Optional.empty(), MoreExecutors.newDirectExecutorService());
+    List<SFCCSyncOutboxEntity> claimed = List.of(change(1L, FIRST, SFCCSyncOperation.UPSERT));
+    Mockito.when(outboxService.claim(1)).thenReturn(claimed);
+    Mockito.doThrow(new IllegalStateException("sync failed")).when(exporter)
+        .syncChanges(Mockito.any());
+
+    dispatcher.dispatchSite(1);
+
+    Mockito.verify(outboxService, Mockito.times(0)).markSynced(Mockito.any());
+    Mockito.verify(outboxService, Mockito.times(1)).markFailed(claimed, "sync failed");
+  }
+
+  @Test
+  void testScheduledTriggerHandsDispatchToItsExecutorOnce() {
+    ExecutorService executor = Mockito.mock(ExecutorService.class);
+    dispatcher = new SFCCSyncDispatcher(outboxService, siteIdRepository, exporter,
+        Optional.empty(), executor);
+    ArgumentCaptor<Runnable> dispatch = ArgumentCaptor.forClass(Runnable.class);
+
+    dispatcher.dispatch();
+    dispatcher.dispatch();
+
+    Mockito.verify(executor, Mockito.times(1)).execute(dispatch.capture());
+    Mockito.verifyNoInteractions(outboxService);
+    dispatch.getValue().run();
+    Mockito.verify(outboxService, Mockito.times(1)).findSiteIdsReadyToSync();
+    dispatcher.dispatch();
+    Mockito.verify(executor, Mockito.times(2)).execute(Mockito.any());
+  }
+}
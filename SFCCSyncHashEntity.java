@@ -0,0 +1,37 @@
+package com.domain_name.fulfillment.configuration.api.sfcc;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Content hash of a shipping method as it was last imported by SFCC.
+ */
+@Entity
+@Table(name = "sfcc_sync_hash")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SFCCSyncHashEntity {
+
+  @Id
+  @Column(name = "shipping_method_id")
+  private UUID shippingMethodId;
+
+  @Column(name = "content_hash", nullable = false)
+  private String contentHash;
+
+  @Column(name = "synced_date", nullable = false)
+  private LocalDateTime syncedDate;
+}
@@ -0,0 +1,16 @@
+package com.domain_name.fulfillment.configuration.api.sfcc;
+
+import java.util.Collection;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+public interface SFCCSyncHashRepository extends CrudRepository<SFCCSyncHashEntity, UUID> {
+
+  @Modifying
+  @Query("delete from SFCCSyncHashEntity h where h.shippingMethodId in :ids")
+  Integer deleteByShippingMethodIds(@Param("ids") Collection<UUID> ids);
+}
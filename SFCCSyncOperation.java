@@ -0,0 +1,10 @@
+package com.domain_name.fulfillment.configuration.api.sfcc;
+
+/**
+ * Change of a shipping method in the SFCC sync outbox, exported in the merge import either as
+ * the full shipping method or as a delete of its method id.
+ */
+public enum SFCCSyncOperation {
+  UPSERT,
+  DELETE
+}
@@ -0,0 +1,88 @@
+package com.domain_name.fulfillment.configuration.api.sfcc;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Shipping method change waiting to be exported to SFCC. It is written in the same transaction
+ * as the change and picked up by {@link SFCCSyncDispatcher}.
+ */
+@Entity
+@Table(name = "sfcc_sync_outbox")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SFCCSyncOutboxEntity {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "site_id", nullable = false)
+  private Integer siteId;
+
+  @Column(name = "shipping_method_id", nullable = false)
+  private UUID shippingMethodId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "operation", nullable = false)
+  private SFCCSyncOperation operation;
+
+  /**
+   * Method id of the shipping method in SFCC, kept to export deletes of removed methods.
+   */
+  @Column(name = "custom_id")
+  private String customId;
+
+  /**
+   * Method id the shipping method had in SFCC before its method id was changed, to be deleted
+   * there.
+   */
+  @Column(name = "replaced_custom_id")
+  private String replacedCustomId;
+
+  /**
+   * {@link SFCCShippingMethodHash} of the shipping method when it was last changed, stored as
+   * the synced hash once the change is exported.
+   */
+  @Column(name = "content_hash")
+  private String contentHash;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "status", nullable = false)
+  private SFCCSyncStatus status;
+
+  @Column(name = "attempts", nullable = false)
+  private int attempts;
+
+  @Column(name = "last_error")
+  private String lastError;
+
+  @Column(name = "next_attempt_date", nullable = false)
+  private LocalDateTime nextAttemptDate;
+
+  @Column(name = "created_date", nullable = false)
+  private LocalDateTime createdDate;
+
+  @Column(name = "modified_date", nullable = false)
+  private LocalDateTime modifiedDate;
+
+  @Column(name = "synced_date")
+  private LocalDateTime syncedDate;
+}
@@ -0,0 +1,73 @@
+package com.domain_name.fulfillment.configuration.api.sfcc;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.LockModeType;
+
+public interface SFCCSyncOutboxRepository extends CrudRepository<SFCCSyncOutboxEntity, Long> {
+
+  /**
+   * Locks the waiting change of a shipping method until the transaction ends. A change being
+   * claimed by {@link SFCCSyncDispatcher} is waited for and then no longer returned, since it is
+   * in progress once the claim commits, so a new change is never merged into a claimed one.
+   *
+   * @param shippingMethodId changed
+   * @param status of the change to be merged into
+   * @return locked change
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  Optional<SFCCSyncOutboxEntity> findFirstByShippingMethodIdAndStatus(UUID shippingMethodId,
+      SFCCSyncStatus status);
+
+  Optional<SFCCSyncOutboxEntity> findFirstByShippingMethodIdOrderByIdDesc(UUID shippingMethodId);
+
+  boolean existsByShippingMethodIdAndStatusIn(UUID shippingMethodId,
+      Collection<SFCCSyncStatus> statuses);
+
+  @Query(nativeQuery = true, value = "select site_id from sfcc_sync_outbox"
+      + " where status = 'PENDING' or (status = 'IN_PROGRESS' and modified_date < :staleBefore)"
+      + " group by site_id having min(next_attempt_date) <= :now")
+  List<Integer> findSiteIdsReadyToSync(@Param("now") LocalDateTime now,
+      @Param("staleBefore") LocalDateTime staleBefore);
+
+  /**
+   * Locks the changes of a site that are due, skipping the ones locked by another instance.
+   * Changes waiting for their coalescing window or their retry backoff are left for later.
+   */
+  @Query(nativeQuery = true, value = "select * from sfcc_sync_outbox where site_id = :siteId"
+      + " and ((status = 'PENDING' and next_attempt_date <= :now)"
+      + " or (status = 'IN_PROGRESS' and modified_date < :staleBefore))"
+      + " order by id for update skip locked")
+  List<SFCCSyncOutboxEntity> lockPendingBySiteId(@Param("siteId") Integer siteId,
+      @Param("now") LocalDateTime now, @Param("staleBefore") LocalDateTime staleBefore);
+
+  /**
+   * Deletes a batch of the changes synced before the given date. The last change of a shipping
+   * method that still exists is kept, since it holds the sync status of the method.
+   *
+   * @param syncedBefore date before which synced changes are deleted
+   * @param batchSize maximum number of changes deleted
+   * @return number of changes deleted
+   */
+  @Transactional
+  @Modifying
+  @Query(nativeQuery = true, value = "delete from sfcc_sync_outbox where id in ("
+      + "select o.id from sfcc_sync_outbox o where o.status = 'SYNCED'"
+      + " and o.synced_date < :syncedBefore and (o.operation = 'DELETE'"
+      + " or exists (select 1 from sfcc_sync_outbox n"
+      + " where n.shipping_method_id = o.shipping_method_id and n.id > o.id))"
+      + " limit :batchSize)")
+  int deleteSyncedBefore(@Param("syncedBefore") LocalDateTime syncedBefore,
+      @Param("batchSize") int batchSize);
+}
@@ -0,0 +1,275 @@
+package com.domain_name.fulfillment.configuration.api.sfcc;
+
+import static com.domain_name.fulfillment.configuration.api.exception.ErrorConstants.RECORD_NOT_FOUND_CODE_SHIPPING;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.HttpClientErrorException;
+
+import com.domain_name.fulfillment.configuration.api.exception.NotFoundException;
+import com.domain_name.fulfillment.configuration.api.shipping.method.ShippingMethodEntity;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Durable queue of shipping method changes to be exported to SFCC. Changes are enqueued in the
+ * transaction that writes them, so the API returns as soon as the database commits and the
+ * export is done by {@link SFCCSyncDispatcher}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SFCCSyncOutboxService {
+
+  public static final String CHANGES_METRIC = "sfcc.sync.changes";
+  public static final String FAILED_METRIC = "sfcc.sync.outbox.failed";
+
+  private static final int MAX_ERROR_LENGTH = 2048;
+
+  private final SFCCSyncOutboxRepository outboxRepository;
+  private final SFCCSyncHashRepository hashRepository;
+  private final MeterRegistry meterRegistry;
+
+  @Value("${sfcc.sync.coalescing-window-ms:2000}")
+  long coalescingWindowMs;
+
+  @Value("${sfcc.sync.retry-delay-ms:30000}")
+  long retryDelayMs;
+
+  @Value("${sfcc.sync.max-attempts:5}")
+  int maxAttempts;
+
+  @Value("${sfcc.sync.stale-after-ms:600000}")
+  long staleAfterMs;
+
+  @Value("${sfcc.sync.retention-ms:604800000}")
+  long retentionMs;
+
+  @Value("${sfcc.sync.purge-batch-size:1000}")
+  int purgeBatchSize;
+
+  /**
+   * Records that the shipping method has to be exported. A change of a method that is already
+   * waiting is merged into the waiting entry. A change that leaves the exported content as SFCC
+   * last imported it is skipped, unless an earlier change of the method is still being exported.
+   *
+   * @param shippingMethod changed
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void enqueue(ShippingMethodEntity shippingMethod) {
+    enqueue(shippingMethod, SFCCSyncOperation.UPSERT, null);
+  }
+
+  /**
+   * Records that the shipping method has to be exported under its new method id, and the method
+   * it replaces deleted in SFCC. It is never skipped, since SFCC still holds the replaced method.
+   *
+   * @param shippingMethod changed
+   * @param replacedCustomId method id of the shipping method before the change
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void enqueueCustomIdChange(ShippingMethodEntity shippingMethod,
+      String replacedCustomId) {
+    enqueue(shippingMethod, SFCCSyncOperation.UPSERT, replacedCustomId);
+  }
+
+  /**
+   * Records that the shipping method has to be deleted in SFCC, replacing any waiting change of
+   * the method.
+   *
+   * @param shippingMethod deleted
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void enqueueDelete(ShippingMethodEntity shippingMethod) {
+    enqueue(shippingMethod, SFCCSyncOperation.DELETE, null);
+  }
+
+  private void enqueue(ShippingMethodEntity shippingMethod, SFCCSyncOperation operation,
+      String replacedCustomId) {
+    String contentHash = operation == SFCCSyncOperation.UPSERT
+        ? SFCCShippingMethodHash.of(shippingMethod)
+        : null;
+    if (contentHash != null && replacedCustomId == null
+        && isSynced(shippingMethod.getShippingMethodId(), contentHash)) {
+      meterRegistry.counter(CHANGES_METRIC, "result", "skipped").increment();
+      return;
+    }
+    meterRegistry.counter(CHANGES_METRIC, "result", "queued").increment();
+    LocalDateTime now = LocalDateTime.now();
+    SFCCSyncOutboxEntity outbox = outboxRepository
+        .findFirstByShippingMethodIdAndStatus(shippingMethod.getShippingMethodId(),
+            SFCCSyncStatus.PENDING)
+        .orElseGet(() -> SFCCSyncOutboxEntity.builder()
+            .siteId(shippingMethod.getSiteId().getId())
+            .shippingMethodId(shippingMethod.getShippingMethodId())
+            .status(SFCCSyncStatus.PENDING)
+            .nextAttemptDate(now.plus(coalescingWindowMs, ChronoUnit.MILLIS))
+            .createdDate(now)
+            .build());
+    outbox.setOperation(operation);
+    outbox.setCustomId(shippingMethod.getCustomId());
+    outbox.setContentHash(contentHash);
+    // the method id SFCC holds is the one replaced first
+    if (outbox.getReplacedCustomId() == null) {
+      outbox.setReplacedCustomId(replacedCustomId);
+    }
+    outbox.setModifiedDate(now);
+    outboxRepository.save(outbox);
+  }
+
+  private boolean isSynced(UUID shippingMethodId, String contentHash) {
+    return hashRepository.findById(shippingMethodId)
+        .filter(synced -> Objects.equals(synced.getContentHash(), contentHash))
+        .isPresent()
+        && !outboxRepository.existsByShippingMethodIdAndStatusIn(shippingMethodId,
+            List.of(SFCCSyncStatus.PENDING, SFCCSyncStatus.IN_PROGRESS));
+  }
+
+  @Transactional(readOnly = true)
+  public List<Integer> findSiteIdsReadyToSync() {
+    LocalDateTime now = LocalDateTime.now();
+    return outboxRepository.findSiteIdsReadyToSync(now,
+        now.minus(staleAfterMs, ChronoUnit.MILLIS));
+  }
+
+  /**
+   * Claims every waiting change of the site, skipping the ones claimed by another instance.
+   *
+   * @param siteId to be exported
+   * @return claimed changes, in the order they were enqueued
+   */
+  @Transactional
+  public List<SFCCSyncOutboxEntity> claim(Integer siteId) {
+    LocalDateTime now = LocalDateTime.now();
+    List<SFCCSyncOutboxEntity> claimed = outboxRepository.lockPendingBySiteId(siteId, now,
+        now.minus(staleAfterMs, ChronoUnit.MILLIS));
+    claimed.forEach(outbox -> {
+      outbox.setStatus(SFCCSyncStatus.IN_PROGRESS);
+      outbox.setModifiedDate(now);
+    });
+    outboxRepository.saveAll(claimed);
+    return claimed;
+  }
+
+  @Transactional
+  public void markSynced(List<SFCCSyncOutboxEntity> claimed) {
+    LocalDateTime now = LocalDateTime.now();
+    claimed.forEach(outbox -> {
+      outbox.setStatus(SFCCSyncStatus.SYNCED);
+      outbox.setLastError(null);
+      outbox.setModifiedDate(now);
+      outbox.setSyncedDate(now);
+    });
+    outboxRepository.saveAll(claimed);
+    saveSyncedHashes(claimed, now);
+  }
+
+  /**
+   * Keeps the hash of the last exported change of each shipping method, and drops the hashes
+   * of the deleted ones.
+   */
+  private void saveSyncedHashes(List<SFCCSyncOutboxEntity> claimed, LocalDateTime now) {
+    Map<UUID, SFCCSyncOutboxEntity> lastChanges = new LinkedHashMap<>();
+    claimed.forEach(outbox -> lastChanges.put(outbox.getShippingMethodId(), outbox));
+    List<UUID> deleted = lastChanges.values().stream()
+        .filter(outbox -> outbox.getOperation() == SFCCSyncOperation.DELETE)
+        .map(SFCCSyncOutboxEntity::getShippingMethodId)
+        .toList();
+    if (!deleted.isEmpty()) {
+      hashRepository.deleteByShippingMethodIds(deleted);
+    }
+    hashRepository.saveAll(lastChanges.values().stream()
+        .filter(outbox -> outbox.getOperation() != SFCCSyncOperation.DELETE
+            && outbox.getContentHash() != null)
+        .map(outbox -> SFCCSyncHashEntity.builder()
+            .shippingMethodId(outbox.getShippingMethodId())
+            .contentHash(outbox.getContentHash())
+            .syncedDate(now)
+            .build())
+        .toList());
+  }
+
+  /**
+   * Puts the claimed changes back in the queue with a linear backoff, or fails them once the
+   * maximum number of attempts is reached. Failed changes are no longer retried, so they are
+   * counted in {@value #FAILED_METRIC} to be alerted on.
+   *
+   * @param claimed changes whose export failed
+   * @param error cause of the failure
+   */
+  @Transactional
+  public void markFailed(List<SFCCSyncOutboxEntity> claimed, String error) {
+    LocalDateTime now = LocalDateTime.now();
+    String lastError = error == null || error.length() <= MAX_ERROR_LENGTH ? error
+        : error.substring(0, MAX_ERROR_LENGTH);
+    claimed.forEach(outbox -> {
+      int attempts = outbox.getAttempts() + 1;
+      outbox.setAttempts(attempts);
+      outbox.setLastError(lastError);
+      outbox.setModifiedDate(now);
+      outbox.setNextAttemptDate(now.plus(retryDelayMs * attempts, ChronoUnit.MILLIS));
+      outbox.setStatus(attempts >= maxAttempts ? SFCCSyncStatus.FAILED : SFCCSyncStatus.PENDING);
+    });
+    outboxRepository.saveAll(claimed);
+    long failed = claimed.stream().filter(outbox -> outbox.getStatus() == SFCCSyncStatus.FAILED)
+        .count();
+    if (failed > 0) {
+      meterRegistry.counter(FAILED_METRIC).increment(failed);
+      log.error("{} SFCC sync changes failed after {} attempts : {}", failed, maxAttempts,
+          lastError);
+    }
+  }
+
+  /**
+   * Deletes the changes synced longer ago than the retention, one batch per transaction so the
+   * outbox is never locked for long.
+   */
+  @Scheduled(fixedDelayString = "${sfcc.sync.purge-delay-ms:3600000}")
+  public void purgeSynced() {
+    LocalDateTime syncedBefore = LocalDateTime.now().minus(retentionMs, ChronoUnit.MILLIS);
+    int purged = 0;
+    int deleted;
+    do {
+      deleted = outboxRepository.deleteSyncedBefore(syncedBefore, purgeBatchSize);
+      purged += deleted;
+    } while (deleted == purgeBatchSize);
+    if (purged > 0) {
+      log.info("Purged {} SFCC sync changes synced before {}", purged, syncedBefore);
+    }
+  }
+
+  /**
+   * Returns the state of the last change of the shipping method.
+   *
+   * @param shippingMethodId to be checked
+   * @return sync state
+   */
+  @Transactional(readOnly = true)
+  public SFCCSyncStatusResponse getSyncStatus(UUID shippingMethodId) {
+    return outboxRepository.findFirstByShippingMethodIdOrderByIdDesc(shippingMethodId)
+        .map(outbox -> SFCCSyncStatusResponse.builder()
+            .shippingMethodId(outbox.getShippingMethodId())
+            .status(outbox.getStatus())
+            .attempts(outbox.getAttempts())
+            .lastError(outbox.getLastError())
+            .modifiedDate(outbox.getModifiedDate())
+            .syncedDate(outbox.getSyncedDate())
+            .build())
+        .orElseThrow(() -> new NotFoundException(new HttpClientErrorException(HttpStatus.NOT_FOUND),
+            RECORD_NOT_FOUND_CODE_SHIPPING, shippingMethodId.toString()));
+  }
+}
@@ -0,0 +1,210 @@
+package com.domain_name.fulfillment.configuration.api.sfcc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import com.domain_name.fulfillment.configuration.api.channel.ChannelEntity;
+import com.domain_name.fulfillment.configuration.api.shipping.method.ShippingMethodEntity;
+import com.domain_name.fulfillment.configuration.api.shipping.method.ShippingMethodEntityConverterTest;
+import com.domain_name.fulfillment.configuration.api.site.SiteIdEntity;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SFCCSyncOutboxServiceTest {
+
+  SFCCSyncOutboxRepository outboxRepository;
+
+  SFCCSyncHashRepository hashRepository;
+
+  SimpleMeterRegistry meterRegistry;
+
+  SFCCSyncOutboxService outboxService;
+
+  @BeforeEach
+  void setup() {
+    outboxRepository = Mockito.mock(SFCCSyncOutboxRepository.class);
+    hashRepository = Mockito.mock(SFCCSyncHashRepository.class);
+    meterRegistry = new SimpleMeterRegistry();
+    outboxService = new SFCCSyncOutboxService(outboxRepository, hashRepository, meterRegistry);
+  }
+
+  private static ShippingMethodEntity shippingMethod() {
+    ShippingMethodEntity shippingMethod = ShippingMethodEntityConverterTest.getEntity();
+    shippingMethod.setSiteId(SiteIdEntity.builder().id(1).name("domain_name-AT").build());
+    return shippingMethod;
+  }
+
+  private void mockSyncedHash(ShippingMethodEntity shippingMethod, String contentHash) {
+    Mockito.when(hashRepository.findById(shippingMethod.getShippingMethodId()))
+        .thenReturn(Optional.of(SFCCSyncHashEntity.builder()
+            .shippingMethodId(shippingMethod.getShippingMethodId())
+            .contentHash(contentHash)
+            .build()));
+  }
+
+  private double changes(String result) {
+    return meterRegistry.get(SFCCSyncOutboxService.CHANGES_METRIC).tag("result", result)
+        .counter().count();
+  }
+
+  @Test
+  void testHashIgnoresOrderOfValues() {
+    ShippingMethodEntity shippingMethod = shippingMethod();
+    ShippingMethodEntity reordered = shippingMethod();
+    List<ChannelEntity> channels = new ArrayList<>(shippingMethod.getChannels());
+    Collections.reverse(channels);
+    reordered.setChannels(channels);
+
+    Assertions.assertEquals(SFCCShippingMethodHash.of(shippingMethod),
+        SFCCShippingMethodHash.of(reordered));
+    reordered.setCarrierService("Standard");
+    Assertions.assertNotEquals(SFCCShippingMethodHash.of(shippingMethod),
+        SFCCShippingMethodHash.of(reordered));
+  }
+
+  @Test
+  void testHashCoversPosition() {
+    ShippingMethodEntity shippingMethod = shippingMethod();
+    ShippingMethodEntity moved = shippingMethod();
+    moved.setPosition((short) (shippingMethod.getPosition() + 1));
+
+    Assertions.assertNotEquals(SFCCShippingMethodHash.of(shippingMethod),
+        SFCCShippingMethodHash.of(moved));
+  }
+
+  @Test
+  void testEnqueueSkipsUnchangedContent() {
+    ShippingMethodEntity shippingMethod = shippingMethod();
+    mockSyncedHash(shippingMethod, SFCCShippingMethodHash.of(shippingMethod));
+
+    outboxService.enqueue(shippingMethod);
+
+    Mockito.verify(outboxRepository, Mockito.times(0)).save(Mockito.any());
+    Assertions.assertEquals(1.0, changes("skipped"));
+  }
+
+  @Test
+  void testEnqueueQueuesUnchangedContentWhileEarlierChangeIsExported() {
+    ShippingMethodEntity shippingMethod = shippingMethod();
+    mockSyncedHash(shippingMethod, SFCCShippingMethodHash.of(shippingMethod));
+    Mockito.when(outboxRepository.existsByShippingMethodIdAndStatusIn(Mockito.any(),
+        Mockito.anyCollection())).thenReturn(true);
+
+    outboxService.enqueue(shippingMethod);
+
+    Mockito.verify(outboxRepository, Mockito.times(1)).save(Mockito.any());
+    Assertions.assertEquals(1.0, changes("queued"));
+  }
+
+  @Test
+  void testEnqueueQueuesChangedContentWithItsHash() {
+    ShippingMethodEntity shippingMethod = shippingMethod();
+    mockSyncedHash(shippingMethod, "previous");
+    ArgumentCaptor<SFCCSyncOutboxEntity> outbox = ArgumentCaptor
+        .forClass(SFCCSyncOutboxEntity.class);
+
+    outboxService.enqueue(shippingMethod);
+
+    Mockito.verify(outboxRepository).save(outbox.capture());
+    Assertions.assertEquals(SFCCShippingMethodHash.of(shippingMethod),
+        outbox.getValue().getContentHash());
+    Assertions.assertEquals(SFCCSyncOperation.UPSERT, outbox.getValue().getOperation());
+  }
+
+  @Test
+  void testCustomIdChangeIsQueuedWithFirstReplacedCustomId() {
+    ShippingMethodEntity shippingMethod = shippingMethod();
+    mockSyncedHash(shippingMethod, SFCCShippingMethodHash.of(shippingMethod));
+    SFCCSyncOutboxEntity waiting = SFCCSyncOutboxEntity.builder()
+        .shippingMethodId(shippingMethod.getShippingMethodId()).replacedCustomId("first")
+        .build();
+    Mockito.when(outboxRepository.findFirstByShippingMethodIdAndStatus(
+            shippingMethod.getShippingMethodId(), SFCCSyncStatus.PENDING))
+        .thenReturn(Optional.empty(), Optional.of(waiting));
+    ArgumentCaptor<SFCCSyncOutboxEntity> outbox = ArgumentCaptor
+        .forClass(SFCCSyncOutboxEntity.class);
+
+    outboxService.enqueueCustomIdChange(shippingMethod, "previous");
+    outboxService.enqueueCustomIdChange(shippingMethod, "second");
+
+    Mockito.verify(outboxRepository, Mockito.times(2)).save(outbox.capture());
+    Assertions.assertEquals("previous", outbox.getAllValues().get(0).getReplacedCustomId());
+    Assertions.assertEquals("first", outbox.getAllValues().get(1).getReplacedCustomId());
+    Assertions.assertEquals(2.0, changes("queued"));
+  }
+
+  @Test
+  void testClaimLeavesChangesThatAreNotDue() {
+    outboxService.staleAfterMs = 600000;
+    ArgumentCaptor<LocalDateTime> now = ArgumentCaptor.forClass(LocalDateTime.class);
+    ArgumentCaptor<LocalDateTime> staleBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+
+    outboxService.claim(1);
+
+    Mockito.verify(outboxRepository).lockPendingBySiteId(Mockito.eq(1), now.capture(),
+        staleBefore.capture());
+    Assertions.assertEquals(now.getValue().minusMinutes(10), staleBefore.getValue());
+  }
+
+  @Test
+  void testPurgeSyncedDeletesInBatchesUntilDone() {
+    outboxService.retentionMs = 86400000;
+    outboxService.purgeBatchSize = 2;
+    Mockito.when(outboxRepository.deleteSyncedBefore(Mockito.any(), Mockito.eq(2)))
+        .thenReturn(2, 2, 1);
+
+    outboxService.purgeSynced();
+
+    Mockito.verify(outboxRepository, Mockito.times(3)).deleteSyncedBefore(Mockito.any(),
+        Mockito.eq(2));
+  }
+
+  @Test
+  void testMarkSyncedStoresHashOfLastChange() {
+    UUID updated = UUID.randomUUID();
+    UUID deleted = UUID.randomUUID();
+    List<SFCCSyncOutboxEntity> claimed = List.of(
+        SFCCSyncOutboxEntity.builder().shippingMethodId(updated)
+            .operation(SFCCSyncOperation.UPSERT).contentHash("first").build(),
+        SFCCSyncOutboxEntity.builder().shippingMethodId(deleted)
+            .operation(SFCCSyncOperation.UPSERT).contentHash("other").build(),
+        SFCCSyncOutboxEntity.builder().shippingMethodId(updated)
+            .operation(SFCCSyncOperation.UPSERT).contentHash("last").build(),
+        SFCCSyncOutboxEntity.builder().shippingMethodId(deleted)
+            .operation(SFCCSyncOperation.DELETE).build());
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<SFCCSyncHashEntity>> hashes = ArgumentCaptor.forClass(List.class);
+
+    outboxService.markSynced(claimed);
+
+    Mockito.verify(hashRepository).deleteByShippingMethodIds(List.of(deleted));
+    Mockito.verify(hashRepository).saveAll(hashes.capture());
+    Assertions.assertEquals(1, hashes.getValue().size());
+    Assertions.assertEquals("last", hashes.getValue().get(0).getContentHash());
+  }
+
+  @Test
+  void testChangesReachingMaxAttemptsAreFailedAndCounted() {
+    outboxService.maxAttempts = 3;
+    outboxService.retryDelayMs = 1000;
+    SFCCSyncOutboxEntity retried = SFCCSyncOutboxEntity.builder().attempts(0).build();
+    SFCCSyncOutboxEntity exhausted = SFCCSyncOutboxEntity.builder().attempts(2).build();
+
+    outboxService.markFailed(List.of(retried, exhausted), "job failed");
+
+    Assertions.assertEquals(SFCCSyncStatus.PENDING, retried.getStatus());
+    Assertions.assertEquals(SFCCSyncStatus.FAILED, exhausted.getStatus());
+    Assertions.assertEquals(1, meterRegistry.get(SFCCSyncOutboxService.FAILED_METRIC).counter()
+        .count());
+  }
+}
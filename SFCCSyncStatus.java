@@ -0,0 +1,11 @@
+package com.domain_name.fulfillment.configuration.api.sfcc;
+
+/**
+ * State of a shipping method change in the SFCC sync outbox.
+ */
+public enum SFCCSyncStatus {
+  PENDING,
+  IN_PROGRESS,
+  SYNCED,
+  FAILED
+}
@@ -0,0 +1,23 @@
+package com.domain_name.fulfillment.configuration.api.sfcc;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SFCCSyncStatusResponse {
+
+  private UUID shippingMethodId;
+  private SFCCSyncStatus status;
+  private Integer attempts;
+  private String lastError;
+  private LocalDateTime modifiedDate;
+  private LocalDateTime syncedDate;
+}
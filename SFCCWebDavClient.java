@@ -0,0 +1,19 @@
+package com.domain_name.fulfillment.configuration.api.sfcc;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+/**
+ * SFCC WebDAV folder the shipping method import files are uploaded to.
+ */
+@FeignClient(name = "sfcc-webdav", url = "${sfcc.base-url.eu}")
+public interface SFCCWebDavClient {
+
+  @PutMapping(value = "${sfcc.put-shipping-method-xml-url}/{fileName}",
+      consumes = MediaType.APPLICATION_XML_VALUE)
+  void uploadShippingMethodXml(@PathVariable("fileName") String fileName,
+      @RequestBody byte[] xml);
+}
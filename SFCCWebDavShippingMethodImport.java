@@ -0,0 +1,77 @@
+package com.domain_name.fulfillment.configuration.api.sfcc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletionException;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Imports shipping methods by uploading the XML to the shipping methods WebDAV folder and
+ * running the SFCC import job on the uploaded file in merge mode.
+ *
+ * <p>The upload goes through {@link SFCCWebDavClient}, so it shares the pooled HTTP client,
+ * timeouts and outgoing call logging of the other SFCC calls. Feign sends a body from memory, so
+ * the XML is rendered before the upload; it only holds the changed shipping methods. The job
+ * execution is then tracked by {@link SFCCJobStatusTracker} until SFCC reports it done.
+ *
+ * <p>Only registered with {@code sfcc.sync.merge-import.enabled}, otherwise the outbox is synced
+ * through {@link SFCCService}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = SFCCWebDavShippingMethodImport.ENABLED_PROPERTY,
+    havingValue = "true")
+public class SFCCWebDavShippingMethodImport implements SFCCShippingMethodImport {
+
+  static final String ENABLED_PROPERTY = "sfcc.sync.merge-import.enabled";
+
+  private static final String FILE_NAME_FORMAT = "%s_shipping_methods_%d.xml";
+
+  private final SFCCWebDavClient webDavClient;
+  private final SFCCJobClient jobClient;
+  private final SFCCJobStatusTracker jobStatusTracker;
+
+  @Override
+  public void importShippingMethods(String siteName, StreamingHttpOutputMessage.Body xml) {
+    String fileName = String.format(FILE_NAME_FORMAT, siteName, System.currentTimeMillis());
+    webDavClient.uploadShippingMethodXml(fileName, render(xml));
+    SFCCJobExecution execution = jobClient.executeJob(
+        SFCCJobExecutionRequest.mergeImport(fileName));
+    log.info("Started SFCC import job execution {} of {}", execution.getId(), fileName);
+    SFCCJobExecution finished = awaitJobExecution(execution.getId());
+    if (!finished.isSuccessful()) {
+      throw new IllegalStateException("SFCC import job execution " + finished.getId() + " of "
+          + fileName + " ended " + finished.getExecutionStatus() + " with status "
+          + finished.getStatus());
+    }
+  }
+
+  private static byte[] render(StreamingHttpOutputMessage.Body xml) {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    try {
+      xml.writeTo(outputStream);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    return outputStream.toByteArray();
+  }
+
+  private SFCCJobExecution awaitJobExecution(String executionId) {
+    try {
+      return jobStatusTracker.track(executionId).join();
+    } catch (CompletionException ex) {
+      if (ex.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new IllegalStateException(ex.getCause().getMessage(), ex.getCause());
+    }
+  }
+}
@@ -0,0 +1,127 @@
+package com.domain_name.fulfillment.configuration.api.sfcc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.http.StreamingHttpOutputMessage;
+
+import com.domain_name.fulfillment.configuration.api.site.SiteIdRepository;
+
+class SFCCWebDavShippingMethodImportTest {
+
+  private static final String XML = "<shipping-methods/>";
+  private static final StreamingHttpOutputMessage.Body BODY = outputStream -> outputStream
+      .write(XML.getBytes(StandardCharsets.UTF_8));
+
+  SFCCWebDavClient webDavClient;
+
+  SFCCJobClient jobClient;
+
+  SFCCJobStatusTracker jobStatusTracker;
+
+  SFCCWebDavShippingMethodImport shippingMethodImport;
+
+  @BeforeEach
+  void setup() {
+    webDavClient = Mockito.mock(SFCCWebDavClient.class);
+    jobClient = Mockito.mock(SFCCJobClient.class);
+    jobStatusTracker = Mockito.mock(SFCCJobStatusTracker.class);
+    shippingMethodImport = new SFCCWebDavShippingMethodImport(webDavClient, jobClient,
+        jobStatusTracker);
+  }
+
+  private void mockJobExecution(CompletableFuture<SFCCJobExecution> finished) {
+    Mockito.when(jobClient.executeJob(Mockito.any()))
+        .thenReturn(SFCCJobExecution.builder().id("1").executionStatus("pending").build());
+    Mockito.when(jobStatusTracker.track("1")).thenReturn(finished);
+  }
+
+  @Test
+  void testUploadsXmlThenRunsMergeImportOfTheFile() {
+    mockJobExecution(CompletableFuture.completedFuture(SFCCJobExecution.builder().id("1")
+        .executionStatus("finished").status("OK").build()));
+    ArgumentCaptor<String> fileName = ArgumentCaptor.forClass(String.class);
+    ArgumentCaptor<byte[]> xml = ArgumentCaptor.forClass(byte[].class);
+
+    shippingMethodImport.importShippingMethods("domain_name-AT", BODY);
+
+    Mockito.verify(webDavClient, Mockito.times(1))
+        .uploadShippingMethodXml(fileName.capture(), xml.capture());
+    Assertions.assertTrue(fileName.getValue().startsWith("domain_name-AT_shipping_methods_"));
+    Assertions.assertEquals(XML, new String(xml.getValue(), StandardCharsets.UTF_8));
+    Mockito.verify(jobClient, Mockito.times(1)).executeJob(Mockito.argThat(request -> request
+        .getParameters().contains(new SFCCJobExecutionRequest.Parameter(
+            SFCCJobExecutionRequest.IMPORT_MODE, SFCCJobExecutionRequest.IMPORT_MODE_MERGE))
+        && request.getParameters().contains(new SFCCJobExecutionRequest.Parameter(
+            SFCCJobExecutionRequest.IMPORT_FILE, fileName.getValue()))));
+    Mockito.verify(jobStatusTracker, Mockito.times(1)).track("1");
+  }
+
+  @Test
+  void testThrowsWhenImportJobFails() {
+    mockJobExecution(CompletableFuture.completedFuture(SFCCJobExecution.builder().id("1")
+        .executionStatus("aborted").status("ERROR").build()));
+
+    Assertions.assertThrows(IllegalStateException.class,
+        () -> shippingMethodImport.importShippingMethods("domain_name-AT", BODY));
+  }
+
+  @Test
+  void testThrowsWhenImportJobIsNotDoneInTime() {
+    mockJobExecution(CompletableFuture.failedFuture(new TimeoutException("not done")));
+
+    IllegalStateException ex = Assertions.assertThrows(IllegalStateException.class,
+        () -> shippingMethodImport.importShippingMethods("domain_name-AT", BODY));
+    Assertions.assertEquals("not done", ex.getMessage());
+  }
+
+  @Test
+  void testJobIsNotRunWhenUploadFails() {
+    Mockito.doThrow(new IllegalStateException("upload failed")).when(webDavClient)
+        .uploadShippingMethodXml(Mockito.any(), Mockito.any());
+
+    Assertions.assertThrows(IllegalStateException.class,
+        () -> shippingMethodImport.importShippingMethods("domain_name-AT", BODY));
+    Mockito.verifyNoInteractions(jobClient, jobStatusTracker);
+  }
+
+  private ApplicationContextRunner dispatcherContext() {
+    return new ApplicationContextRunner()
+        .withBean(SFCCWebDavClient.class, () -> webDavClient)
+        .withBean(SFCCJobClient.class, () -> jobClient)
+        .withBean(SFCCJobStatusTracker.class, () -> jobStatusTracker)
+        .withBean(SFCCSyncOutboxService.class, () -> Mockito.mock(SFCCSyncOutboxService.class))
+        .withBean(SiteIdRepository.class, () -> Mockito.mock(SiteIdRepository.class))
+        .withBean(SFCCShippingMethodExporter.class,
+            () -> Mockito.mock(SFCCShippingMethodExporter.class))
+        .withUserConfiguration(SFCCWebDavShippingMethodImport.class, SFCCSyncDispatcher.class);
+  }
+
+  @Test
+  void testDispatcherIsWiredToWebDavImportWhenEnabled() {
+    dispatcherContext()
+        .withPropertyValues(SFCCWebDavShippingMethodImport.ENABLED_PROPERTY + "=true")
+        .run(context -> {
+          Assertions.assertNull(context.getStartupFailure());
+          Assertions.assertInstanceOf(SFCCWebDavShippingMethodImport.class,
+              context.getBean(SFCCShippingMethodImport.class));
+          Assertions.assertNotNull(context.getBean(SFCCSyncDispatcher.class));
+        });
+  }
+
+  @Test
+  void testNoWebDavImportByDefault() {
+    dispatcherContext().run(context -> {
+      Assertions.assertNull(context.getStartupFailure());
+      Assertions.assertTrue(context.getBeansOfType(SFCCShippingMethodImport.class).isEmpty());
+      Assertions.assertNotNull(context.getBean(SFCCSyncDispatcher.class));
+    });
+  }
+}
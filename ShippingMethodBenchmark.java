@@ -0,0 +1,95 @@
+package com.domain_name.fulfillment.configuration.api.shipping.method;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.domain_name.fulfillment.configuration.api.channel.ChannelRepository;
+import com.domain_name.fulfillment.configuration.api.products.type.ProductTypeRepository;
+import com.domain_name.fulfillment.configuration.api.site.SiteIdEntity;
+
+/**
+ * Conversions and unique parameter pipelines run on every shipping method request. Run with
+ * {@code mvn -P benchmark verify}, the results are written to {@code target/jmh-result.json}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ShippingMethodBenchmark {
+
+  private static final Map<String, String> UNIQUE_PARAMS = Map.of("channels", "channel",
+      "productTypes", "product_type", "carrierStringRecords", "shipping_method_carrier_string",
+      "carrierService", "carrier_service", "availabilityStatus", "availability_status");
+
+  ShippingMethodResponseConverter responseConverter;
+  ShippingMethodEntityConverter entityConverter;
+  ShippingMethodEntity shippingMethod;
+  ShippingMethodPostRequest postRequest;
+  ShippingMethodPatchRequest patchRequest;
+  SiteIdEntity siteId;
+
+  @Setup
+  public void setup() {
+    ShippingMethodTestHelper testHelper = new ShippingMethodTestHelper() {
+    };
+    shippingMethod = ShippingMethodEntityConverterTest.getEntity();
+    siteId = shippingMethod.getSiteId();
+    postRequest = testHelper.buildShippingPostRequest();
+    patchRequest = testHelper.prepareShippingMethodPatchRequest();
+
+    ChannelRepository channelRepository = Mockito.mock(ChannelRepository.class);
+    ProductTypeRepository productTypeRepository = Mockito.mock(ProductTypeRepository.class);
+    Mockito.when(channelRepository.findByChannelNameIn(Mockito.anyList()))
+        .thenReturn(shippingMethod.getChannels());
+    Mockito.when(productTypeRepository.findByProductTypeNameIn(Mockito.anyList()))
+        .thenReturn(shippingMethod.getProductTypes());
+    responseConverter = new ShippingMethodResponseConverter();
+    entityConverter = new ShippingMethodEntityConverter(channelRepository, productTypeRepository);
+  }
+
+  @Benchmark
+  public ShippingMethodResponse convertResponse() {
+    return responseConverter.convert(shippingMethod);
+  }
+
+  @Benchmark
+  public ShippingMethodEntity fromShippingPostRequest() {
+    return entityConverter.fromShippingPostRequest(postRequest, siteId);
+  }
+
+  /**
+   * Merges the same patch every time, so the entity is stable after the first invocation.
+   */
+  @Benchmark
+  public ShippingMethodEntity mergeShippingMethodWithPatchRequest() {
+    return entityConverter.mergeShippingMethodWithPatchRequest(shippingMethod, patchRequest);
+  }
+
+  @Benchmark
+  public List<String> patchChannels() {
+    return ShippingMethodService.getPatchChannels(ShippingMethodPatchRequest.builder().build(),
+        shippingMethod);
+  }
+
+  @Benchmark
+  public List<String> patchProductTypes() {
+    return ShippingMethodService.getPatchProductTypes(
+        ShippingMethodPatchRequest.builder().build(), shippingMethod);
+  }
+
+  @Benchmark
+  public boolean patchUniqueKeyConflict() {
+    ShippingMethodUniqueKey probe = ShippingMethodUniqueKey.probe(patchRequest, shippingMethod,
+        UNIQUE_PARAMS);
+    return probe.conflictsWith(ShippingMethodUniqueKey.candidate(shippingMethod));
+  }
+}
@@ -0,0 +1,27 @@
+package com.domain_name.fulfillment.configuration.api.shipping.method;
+
+import static com.domain_name.fulfillment.configuration.api.exception.ErrorConstants.INVALID_FIELD_CODE;
+import static com.domain_name.fulfillment.configuration.api.exception.ErrorConstants.REQUIRED_FIELD_CODE;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShippingMethodBulkPostRequest {
+
+  public static final int MAX_SHIPPING_METHODS = 500;
+
+  @NotEmpty(message = REQUIRED_FIELD_CODE)
+  @Size(max = MAX_SHIPPING_METHODS, message = INVALID_FIELD_CODE)
+  private List<@Valid ShippingMethodPostRequest> shippingMethods;
+}
@@ -0,0 +1,112 @@
+package com.domain_name.fulfillment.configuration.api.shipping.method;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.domain_name.fulfillment.configuration.api.site.SiteIdEntity;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per site in memory index of the uniqueness keys of the enabled shipping methods, used to check
+ * the unique parameters of a write without querying the mappings.
+ *
+ * <p>Every write on the shipping methods of a site first bumps the version of the site in
+ * {@code site_shipping_method_version}. The row stays locked until the write commits, so writes
+ * of a site are serialized across instances and the database remains the final guard: the index
+ * is only trusted when its version is the one just before the bump, meaning no other write
+ * committed since it was built, otherwise it is reloaded under the lock. Once the write commits,
+ * its shipping methods are applied to the index at the new version.
+ *
+ * <p>When the index is disabled the checks query {@code shipping_method_unique_key} instead,
+ * which is only written while the index is disabled. The version its keys were written at is kept
+ * next to the version of the site, so keys left behind by writes made while the index was
+ * enabled are rebuilt under the lock before they are used.
+ */
+@Slf4j
+@Component
+public class ShippingMethodConflictIndex {
+
+  public static final String RELOADS_METRIC = "shipping.method.conflict.index.reloads";
+
+  private final Map<Integer, ShippingMethodConflicts> conflicts = new ConcurrentHashMap<>();
+  private final ShippingMethodRepository shippingMethodRepository;
+  private final Counter reloads;
+  private final boolean enabled;
+
+  public ShippingMethodConflictIndex(ShippingMethodRepository shippingMethodRepository,
+      MeterRegistry meterRegistry,
+      @Value("${shipping-method.conflict-index.enabled:true}") boolean enabled) {
+    this.shippingMethodRepository = shippingMethodRepository;
+    this.reloads = Counter.builder(RELOADS_METRIC).register(meterRegistry);
+    this.enabled = enabled;
+  }
+
+  /**
+   * Locks the shipping methods of the site until the current transaction ends and returns their
+   * uniqueness keys.
+   *
+   * @param siteId to be written
+   * @return keys of the site, empty when the index is disabled and the checks have to be done in
+   *     the database, against keys the caller must keep up to date
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public Optional<ShippingMethodConflicts> lock(SiteIdEntity siteId) {
+    // the version is bumped even when disabled, ShippingMethodSnapshotCache revalidates with it
+    long version = shippingMethodRepository.lockSiteShippingMethods(siteId.getId());
+    if (!enabled) {
+      if (shippingMethodRepository.advanceUniqueKeysVersion(siteId.getId()) == 0) {
+        reloads.increment();
+        log.info("Rebuilding shipping method unique keys of siteId {}", siteId.getName());
+        shippingMethodRepository.deleteSiteUniqueKeys(siteId.getId());
+        shippingMethodRepository.insertSiteUniqueKeys(siteId.getId());
+        shippingMethodRepository.resetUniqueKeysVersion(siteId.getId());
+      }
+      return Optional.empty();
+    }
+    ShippingMethodConflicts current = conflicts.get(siteId.getId());
+    if (current == null || current.getVersion() != version - 1) {
+      reloads.increment();
+      log.debug("Loading shipping method conflict index for siteId {}", siteId.getName());
+      current = ShippingMethodConflicts.of(siteId.getId(), version - 1,
+          shippingMethodRepository.findAllBySiteIdNameOrderByPosition(siteId.getName()));
+      publish(current);
+    }
+    return Optional.of(current.withVersion(version));
+  }
+
+  /**
+   * Applies the keys written by the current transaction once it commits, or right away when
+   * there is no transaction.
+   *
+   * @param written keys of the site including the write
+   */
+  public void publishAfterCommit(ShippingMethodConflicts written) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      publish(written);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        publish(written);
+      }
+    });
+  }
+
+  private void publish(ShippingMethodConflicts published) {
+    conflicts.merge(published.getSiteId(), published,
+        (current, candidate) -> candidate.getVersion() > current.getVersion() ? candidate
+            : current);
+  }
+}
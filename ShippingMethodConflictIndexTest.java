@@ -0,0 +1,149 @@
+package com.domain_name.fulfillment.configuration.api.shipping.method;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import com.domain_name.fulfillment.configuration.api.channel.ChannelEntity;
+import com.domain_name.fulfillment.configuration.api.channel.ChannelEnum;
+import com.domain_name.fulfillment.configuration.api.products.type.ProductTypeEntity;
+import com.domain_name.fulfillment.configuration.api.products.type.ProductTypeEnum;
+import com.domain_name.fulfillment.configuration.api.shipping.carrier.string.CarrierStringEntity;
+import com.domain_name.fulfillment.configuration.api.site.SiteIdEntity;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ShippingMethodConflictIndexTest {
+
+  private static final SiteIdEntity SITE_ID = SiteIdEntity.builder()
+      .id(1)
+      .name("domain_name-AT")
+      .uniqueParameters(Map.of("channels", "channel", "carrierStringRecords",
+          "shipping_method_carrier_string"))
+      .build();
+
+  ShippingMethodRepository shippingMethodRepository;
+
+  SimpleMeterRegistry meterRegistry;
+
+  ShippingMethodConflictIndex conflictIndex;
+
+  @BeforeEach
+  void setup() {
+    shippingMethodRepository = Mockito.mock(ShippingMethodRepository.class);
+    meterRegistry = new SimpleMeterRegistry();
+    conflictIndex = new ShippingMethodConflictIndex(shippingMethodRepository, meterRegistry, true);
+  }
+
+  private static ShippingMethodEntity buildShippingMethod(String carrierString, boolean enabled) {
+    return ShippingMethodEntity.builder()
+        .shippingMethodId(UUID.randomUUID())
+        .siteId(SITE_ID)
+        .enabled(enabled)
+        .channels(List.of(ChannelEntity.builder().channelName(ChannelEnum.WEB).build()))
+        .productTypes(List.of(
+            ProductTypeEntity.builder().productTypeName(ProductTypeEnum.BACKORDER).build()))
+        .carrierStrings(List.of(
+            CarrierStringEntity.builder().carrierString(carrierString).build()))
+        .build();
+  }
+
+  private static ShippingMethodUniqueKey probe(String carrierString) {
+    return ShippingMethodUniqueKey.candidate(buildShippingMethod(carrierString, true));
+  }
+
+  @Test
+  void testLockLoadsSiteOnce() {
+    Mockito.when(shippingMethodRepository.lockSiteShippingMethods(1)).thenReturn(1L, 2L);
+    Mockito.when(shippingMethodRepository.findAllBySiteIdNameOrderByPosition("domain_name-AT"))
+        .thenReturn(List.of(buildShippingMethod("carrier1", true),
+            buildShippingMethod("carrier2", false)));
+
+    ShippingMethodConflicts first = conflictIndex.lock(SITE_ID).orElseThrow();
+    conflictIndex.publishAfterCommit(first.with(List.of(buildShippingMethod("carrier3", true))));
+    ShippingMethodConflicts second = conflictIndex.lock(SITE_ID).orElseThrow();
+
+    Mockito.verify(shippingMethodRepository, Mockito.times(1))
+        .findAllBySiteIdNameOrderByPosition(Mockito.any());
+    Assertions.assertEquals(2, second.getVersion());
+    Assertions.assertTrue(second.conflictsWith(probe("carrier1")));
+    Assertions.assertFalse(second.conflictsWith(probe("carrier2")));
+    Assertions.assertTrue(second.conflictsWith(probe("carrier3")));
+    Assertions.assertEquals(1.0, meterRegistry.get(ShippingMethodConflictIndex.RELOADS_METRIC)
+        .counter().count());
+  }
+
+  @Test
+  void testLockReloadsWhenAnotherWriteCommitted() {
+    Mockito.when(shippingMethodRepository.lockSiteShippingMethods(1)).thenReturn(1L, 3L);
+    Mockito.when(shippingMethodRepository.findAllBySiteIdNameOrderByPosition("domain_name-AT"))
+        .thenReturn(List.of(), List.of(buildShippingMethod("carrier1", true)));
+
+    conflictIndex.lock(SITE_ID);
+    ShippingMethodConflicts reloaded = conflictIndex.lock(SITE_ID).orElseThrow();
+
+    Mockito.verify(shippingMethodRepository, Mockito.times(2))
+        .findAllBySiteIdNameOrderByPosition(Mockito.any());
+    Assertions.assertTrue(reloaded.conflictsWith(probe("carrier1")));
+  }
+
+  @Test
+  void testConflictsLeaveOutPatchedShippingMethod() {
+    ShippingMethodEntity shippingMethod = buildShippingMethod("carrier1", true);
+    ShippingMethodConflicts conflicts = ShippingMethodConflicts.of(1, 1, List.of(shippingMethod));
+
+    Assertions.assertFalse(conflicts.conflictsWith(probe("carrier1"),
+        shippingMethod.getShippingMethodId()));
+    Assertions.assertFalse(conflicts.without(shippingMethod.getShippingMethodId())
+        .conflictsWith(probe("carrier1")));
+  }
+
+  @Test
+  void testPatchConflictsLeaveOutShippingMethodsWithoutChannelsOrProductTypes() {
+    ShippingMethodEntity withoutChannels = buildShippingMethod("carrier1", true);
+    withoutChannels.setChannels(List.of());
+    ShippingMethodEntity withoutProductTypes = buildShippingMethod("carrier1", true);
+    withoutProductTypes.setProductTypes(List.of());
+    ShippingMethodConflicts conflicts = ShippingMethodConflicts.of(1, 1,
+        List.of(withoutChannels, withoutProductTypes));
+
+    Assertions.assertTrue(conflicts.conflictsWith(probe("carrier1")));
+    Assertions.assertFalse(conflicts.conflictsWith(probe("carrier1"), UUID.randomUUID()));
+  }
+
+  @Test
+  void testLockWhenDisabled() {
+    conflictIndex = new ShippingMethodConflictIndex(shippingMethodRepository, meterRegistry,
+        false);
+    Mockito.when(shippingMethodRepository.advanceUniqueKeysVersion(1)).thenReturn(1);
+
+    Assertions.assertEquals(Optional.empty(), conflictIndex.lock(SITE_ID));
+    Mockito.verify(shippingMethodRepository, Mockito.times(1)).lockSiteShippingMethods(1);
+    Mockito.verify(shippingMethodRepository, Mockito.times(1)).advanceUniqueKeysVersion(1);
+    Mockito.verifyNoMoreInteractions(shippingMethodRepository);
+  }
+
+  @Test
+  void testLockWhenDisabledRebuildsKeysSkippedWhileEnabled() {
+    conflictIndex = new ShippingMethodConflictIndex(shippingMethodRepository, meterRegistry,
+        false);
+    Mockito.when(shippingMethodRepository.advanceUniqueKeysVersion(1)).thenReturn(0);
+
+    Assertions.assertEquals(Optional.empty(), conflictIndex.lock(SITE_ID));
+    InOrder inOrder = Mockito.inOrder(shippingMethodRepository);
+    inOrder.verify(shippingMethodRepository).lockSiteShippingMethods(1);
+    inOrder.verify(shippingMethodRepository).advanceUniqueKeysVersion(1);
+    inOrder.verify(shippingMethodRepository).deleteSiteUniqueKeys(1);
+    inOrder.verify(shippingMethodRepository).insertSiteUniqueKeys(1);
+    inOrder.verify(shippingMethodRepository).resetUniqueKeysVersion(1);
+    Assertions.assertEquals(1.0, meterRegistry.get(ShippingMethodConflictIndex.RELOADS_METRIC)
+        .counter().count());
+  }
+}
@@ -0,0 +1,80 @@
+package com.domain_name.fulfillment.configuration.api.shipping.method;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Immutable uniqueness keys of the enabled shipping methods of a site, as of a version of the
+ * site kept by {@link ShippingMethodConflictIndex}.
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+final class ShippingMethodConflicts {
+
+  @Getter
+  private final Integer siteId;
+
+  @Getter
+  private final long version;
+
+  private final Map<UUID, ShippingMethodUniqueKey> keys;
+
+  static ShippingMethodConflicts of(Integer siteId, long version,
+      Collection<ShippingMethodEntity> shippingMethods) {
+    return new ShippingMethodConflicts(siteId, version, Map.of()).with(shippingMethods);
+  }
+
+  ShippingMethodConflicts withVersion(long version) {
+    return new ShippingMethodConflicts(siteId, version, keys);
+  }
+
+  /**
+   * @param probe to be checked
+   * @return true if an enabled shipping method of the site conflicts with the probe
+   */
+  boolean conflictsWith(ShippingMethodUniqueKey probe) {
+    return keys.values().stream().anyMatch(probe::conflictsWith);
+  }
+
+  /**
+   * @param probe of a patch, to be checked
+   * @param shippingMethodId patched, left out of the check
+   * @return true if another enabled shipping method of the site conflicts with the probe
+   */
+  boolean conflictsWith(ShippingMethodUniqueKey probe, UUID shippingMethodId) {
+    return keys.entrySet().stream()
+        .anyMatch(entry -> !entry.getKey().equals(shippingMethodId)
+            && probe.patchConflictsWith(entry.getValue()));
+  }
+
+  /**
+   * Returns the keys of the site once the given shipping methods have been written, disabled
+   * methods are dropped.
+   *
+   * @param shippingMethods written
+   * @return new keys
+   */
+  ShippingMethodConflicts with(Collection<ShippingMethodEntity> shippingMethods) {
+    Map<UUID, ShippingMethodUniqueKey> updated = new HashMap<>(keys);
+    shippingMethods.forEach(shippingMethod -> {
+      if (Boolean.TRUE.equals(shippingMethod.getEnabled())) {
+        updated.put(shippingMethod.getShippingMethodId(),
+            ShippingMethodUniqueKey.candidate(shippingMethod));
+      } else {
+        updated.remove(shippingMethod.getShippingMethodId());
+      }
+    });
+    return new ShippingMethodConflicts(siteId, version, Map.copyOf(updated));
+  }
+
+  ShippingMethodConflicts without(UUID shippingMethodId) {
+    Map<UUID, ShippingMethodUniqueKey> updated = new HashMap<>(keys);
+    updated.remove(shippingMethodId);
+    return new ShippingMethodConflicts(siteId, version, Map.copyOf(updated));
+  }
+}
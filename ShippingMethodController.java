@@ -4,8 +4,10 @@ import static com.domain_name.fulfillment.configuration.api.exception.ErrorConst
 import static com.domain_name.fulfillment.configuration.api.exception.ErrorConstants.REQUIRED_FIELD_CODE;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
@@ -17,11 +19,14 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.domain_name.fulfillment.configuration.api.constant.PatternConstants;
 import com.domain_name.fulfillment.configuration.api.logging.MDCManager;
+import com.domain_name.fulfillment.configuration.api.sfcc.SFCCSyncOutboxService;
+import com.domain_name.fulfillment.configuration.api.sfcc.SFCCSyncStatusResponse;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
@@ -36,18 +41,74 @@ import lombok.extern.slf4j.Slf4j;
 @Validated
 public class ShippingMethodController {
 
+  private static final String GZIP = "gzip";
+
   public final ShippingMethodService shippingMethodService;
   private final MDCManager mdcManager;
+  private final ShippingMethodSnapshotCache snapshotCache;
+  private final SFCCSyncOutboxService sfccSyncOutboxService;
 
+  /**
+   * Returns the shipping methods of a site from its pre-rendered snapshot. The body is sent
+   * gzipped when the client accepts it and a 304 is returned when the ETag still matches.
+   *
+   * @param siteId of the shipping methods
+   * @param ifNoneMatch ETags already held by the client
+   * @param acceptEncoding encodings accepted by the client
+   * @return rendered shipping methods or not modified
+   */
   @GetMapping(value = "/{siteId}", produces = MediaType.APPLICATION_JSON_VALUE)
-  public List<ShippingMethodResponse> getShippingMethods(@PathVariable String siteId) {
+  public ResponseEntity<byte[]> getShippingMethods(@PathVariable String siteId,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+      String acceptEncoding) {
     mdcManager.insertSiteIdMDC(siteId);
     log.info("Reading all shipping methods");
-    return shippingMethodService.getAllForSiteId(siteId);
+    ShippingMethodSnapshot snapshot = snapshotCache.get(siteId,
+        () -> shippingMethodService.getAllForSiteId(siteId));
+    if (snapshot.matches(ifNoneMatch)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(snapshot.getETag())
+          .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING).build();
+    }
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_JSON)
+        .eTag(snapshot.getETag())
+        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    if (acceptsGzip(acceptEncoding)) {
+      return response.header(HttpHeaders.CONTENT_ENCODING, GZIP).body(snapshot.getGzippedJson());
+    }
+    return response.body(snapshot.getJson());
+  }
+
+  private static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    for (String encoding : acceptEncoding.split(",")) {
+      String[] parts = encoding.trim().toLowerCase(Locale.ENGLISH).split(";");
+      if (GZIP.equals(parts[0].trim())) {
+        return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the state of the SFCC sync of the last change of a shipping method.
+   * 
+   * @param shippingMethodId to be checked
+   * @return sync state
+   */
+  @GetMapping(value = "/{shippingMethodId}/sfcc-sync", produces = MediaType.APPLICATION_JSON_VALUE)
+  public SFCCSyncStatusResponse getSfccSyncStatus(
+      @PathVariable @NotBlank(message = REQUIRED_FIELD_CODE)
+      @Pattern(regexp = PatternConstants.UUID_PATTERN,
+      message = INVALID_FIELD_CODE) String shippingMethodId) {
+    return sfccSyncOutboxService.getSyncStatus(UUID.fromString(shippingMethodId));
   }
 
   /**
-   * Creates a new shipping method saved into database and synced with SFCC.
+   * Creates a new shipping method saved into database and queued to be synced with SFCC.
    * 
    * @param request containing method data
    * @return response after creation of the method
@@ -69,6 +130,31 @@ public class ShippingMethodController {
     }
   }
 
+  /**
+   * Creates a batch of shipping methods, possibly for several sites, in one transaction. The
+   * changes of each site are synced with SFCC in one export.
+   * 
+   * @param request containing the methods data
+   * @return created methods in the order of the request
+   */
+  @PostMapping(value = "/bulk", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<List<ShippingMethodResponse>> createShippingMethodsInBulk(
+      @Valid @RequestBody ShippingMethodBulkPostRequest request) {
+    try {
+      log.info("Request received to create {} shipping methods",
+          request.getShippingMethods().size());
+      List<ShippingMethodResponse> response = shippingMethodService
+          .createShippingMethods(request.getShippingMethods());
+      log.info("Shipping methods created successfully");
+      return ResponseEntity
+          .status(HttpStatusCode.valueOf(HttpStatus.CREATED.value()))
+          .body(response);
+    } catch (RuntimeException ex) {
+      log.error("Error in saving shipping methods in bulk : {} ", ex);
+      throw ex;
+    }
+  }
+
   @PatchMapping(value = "/{shippingMethodId}", produces = MediaType.APPLICATION_JSON_VALUE)
   public ShippingMethodResponse updateShippingMethod(
       @PathVariable @NotBlank(message = REQUIRED_FIELD_CODE)
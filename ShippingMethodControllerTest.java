@@ -2,8 +2,11 @@ package com.domain_name.fulfillment.configuration.api.shipping.method;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.util.List;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -11,13 +14,23 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import com.domain_name.fulfillment.configuration.api.exception.NotFoundException;
 import com.domain_name.fulfillment.configuration.api.logging.MDCManager;
+import com.domain_name.fulfillment.configuration.api.persistence.ReadReplicaRouting;
+import com.domain_name.fulfillment.configuration.api.sfcc.SFCCSyncOutboxService;
+import com.domain_name.fulfillment.configuration.api.sfcc.SFCCSyncStatus;
+import com.domain_name.fulfillment.configuration.api.sfcc.SFCCSyncStatusResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(SpringExtension.class)
 public class ShippingMethodControllerTest extends ShippingMethodTestHelper {
@@ -28,6 +41,15 @@ public class ShippingMethodControllerTest extends ShippingMethodTestHelper {
   @Mock
   MDCManager mdcManager;
 
+  @Mock
+  SFCCSyncOutboxService sfccSyncOutboxService;
+
+  @Spy
+  ShippingMethodSnapshotCache snapshotCache = new ShippingMethodSnapshotCache(
+      new SimpleMeterRegistry(), Jackson2ObjectMapperBuilder.json().build(),
+      Mockito.mock(ShippingMethodRepository.class), Mockito.mock(ReadReplicaRouting.class),
+      Mockito.mock(PlatformTransactionManager.class), 1000, 300000);
+
   @InjectMocks
   ShippingMethodController shippingMethodController;
 
@@ -39,7 +61,15 @@ public class ShippingMethodControllerTest extends ShippingMethodTestHelper {
     Mockito.when(shippingMethodService.getAllForSiteId(siteId))
         .thenReturn(prepareShippingMethodResponseUS());
 
-    List<ShippingMethodResponse> rsponse = shippingMethodController.getShippingMethods(siteId);
+    ResponseEntity<byte[]> responseEntity = shippingMethodController.getShippingMethods(siteId,
+        null, null);
+    ShippingMethodSnapshot snapshot = snapshotCache.get(siteId, List::of);
+    Assertions.assertEquals(HttpStatus.OK.value(), responseEntity.getStatusCode().value());
+    Assertions.assertArrayEquals(snapshot.getJson(), responseEntity.getBody());
+    Assertions.assertEquals(snapshot.getETag(), responseEntity.getHeaders().getETag());
+    Assertions.assertNull(responseEntity.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+
+    List<ShippingMethodResponse> rsponse = snapshot.getShippingMethods();
     Assertions.assertFalse(rsponse.isEmpty());
     Assertions.assertEquals(siteId, rsponse.get(0).getSiteId());
     Assertions.assertEquals(true, rsponse.get(0).getEnabled());
@@ -50,6 +80,85 @@ public class ShippingMethodControllerTest extends ShippingMethodTestHelper {
         rsponse.get(0).getCarrierStringRecords().get(0).getCarrierString());
   }
 
+  @Test
+  void testGetShippingMethodsServedFromSnapshot() {
+    String siteId = "domain_name-US";
+    Mockito.when(shippingMethodService.getAllForSiteId(siteId))
+        .thenReturn(prepareShippingMethodResponseUS());
+
+    ResponseEntity<byte[]> first = shippingMethodController.getShippingMethods(siteId, null,
+        null);
+    ResponseEntity<byte[]> second = shippingMethodController.getShippingMethods(siteId, null,
+        null);
+
+    Assertions.assertSame(first.getBody(), second.getBody());
+    Mockito.verify(shippingMethodService, Mockito.times(1)).getAllForSiteId(siteId);
+  }
+
+  @Test
+  void testGetShippingMethodsGzipped() throws IOException {
+    String siteId = "domain_name-US";
+    Mockito.when(shippingMethodService.getAllForSiteId(siteId))
+        .thenReturn(prepareShippingMethodResponseUS());
+
+    ResponseEntity<byte[]> responseEntity = shippingMethodController.getShippingMethods(siteId,
+        null, "br, gzip;q=0.8");
+    ShippingMethodSnapshot snapshot = snapshotCache.get(siteId, List::of);
+
+    Assertions.assertEquals("gzip",
+        responseEntity.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    try (GZIPInputStream gzip = new GZIPInputStream(
+        new ByteArrayInputStream(responseEntity.getBody()))) {
+      Assertions.assertArrayEquals(snapshot.getJson(), gzip.readAllBytes());
+    }
+  }
+
+  @Test
+  void testGetShippingMethodsGzipRefused() {
+    String siteId = "domain_name-US";
+    Mockito.when(shippingMethodService.getAllForSiteId(siteId))
+        .thenReturn(prepareShippingMethodResponseUS());
+
+    ResponseEntity<byte[]> responseEntity = shippingMethodController.getShippingMethods(siteId,
+        null, "gzip;q=0");
+
+    Assertions.assertNull(responseEntity.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+  }
+
+  @Test
+  void testGetShippingMethodsNotModified() {
+    String siteId = "domain_name-US";
+    Mockito.when(shippingMethodService.getAllForSiteId(siteId))
+        .thenReturn(prepareShippingMethodResponseUS());
+    String etag = shippingMethodController.getShippingMethods(siteId, null, null).getHeaders()
+        .getETag();
+
+    ResponseEntity<byte[]> responseEntity = shippingMethodController.getShippingMethods(siteId,
+        "\"other\", " + etag, "gzip");
+
+    Assertions.assertEquals(HttpStatus.NOT_MODIFIED.value(),
+        responseEntity.getStatusCode().value());
+    Assertions.assertEquals(etag, responseEntity.getHeaders().getETag());
+    Assertions.assertNull(responseEntity.getBody());
+  }
+
+  @Test
+  void testGetShippingMethodsETagChangesWithContent() {
+    String siteId = "domain_name-US";
+    Mockito.when(shippingMethodService.getAllForSiteId(siteId))
+        .thenReturn(prepareShippingMethodResponseUS())
+        .thenReturn(List.of());
+    String etag = shippingMethodController.getShippingMethods(siteId, null, null).getHeaders()
+        .getETag();
+    snapshotCache.evict(siteId);
+
+    ResponseEntity<byte[]> responseEntity = shippingMethodController.getShippingMethods(siteId,
+        etag, null);
+
+    Assertions.assertEquals(HttpStatus.OK.value(), responseEntity.getStatusCode().value());
+    Assertions.assertNotEquals(etag, responseEntity.getHeaders().getETag());
+  }
+
   @Test
   void testCreateShippingMethod() {
     boolean enabled = true;
@@ -87,6 +196,23 @@ public class ShippingMethodControllerTest extends ShippingMethodTestHelper {
     Mockito.verify(shippingMethodService, Mockito.times(1)).createShippingMethod(smPostRequest);
   }
 
+  @Test
+  void testCreateShippingMethodsInBulk() {
+    ShippingMethodPostRequest smPostRequest = buildShippingPostRequest();
+    ShippingMethodResponse smExpectedRsponse = preparePostShippingMethodResponseUS(true);
+    Mockito.when(shippingMethodService.createShippingMethods(Mockito.anyList()))
+        .thenReturn(List.of(smExpectedRsponse, smExpectedRsponse));
+
+    ResponseEntity<List<ShippingMethodResponse>> smRsponseEntity = shippingMethodController
+        .createShippingMethodsInBulk(ShippingMethodBulkPostRequest.builder()
+            .shippingMethods(List.of(smPostRequest, smPostRequest)).build());
+
+    Assertions.assertEquals(HttpStatus.CREATED.value(), smRsponseEntity.getStatusCode().value());
+    Assertions.assertEquals(2, smRsponseEntity.getBody().size());
+    Mockito.verify(shippingMethodService, Mockito.times(1))
+        .createShippingMethods(List.of(smPostRequest, smPostRequest));
+  }
+
   @Test
   void testUpdateShippingMethod() {
     boolean enabled = false;
@@ -117,6 +243,23 @@ public class ShippingMethodControllerTest extends ShippingMethodTestHelper {
     });
   }
 
+  @Test
+  void testGetSfccSyncStatus() {
+    String shippingMethodId = "6b854219-85c5-4833-b75e-6af7e51332c6";
+    SFCCSyncStatusResponse expected = SFCCSyncStatusResponse.builder()
+        .shippingMethodId(UUID.fromString(shippingMethodId))
+        .status(SFCCSyncStatus.SYNCED)
+        .attempts(0)
+        .build();
+    Mockito.when(sfccSyncOutboxService.getSyncStatus(UUID.fromString(shippingMethodId)))
+        .thenReturn(expected);
+
+    SFCCSyncStatusResponse response = shippingMethodController.getSfccSyncStatus(
+        shippingMethodId);
+
+    Assertions.assertEquals(expected, response);
+  }
+
   @Test
   void testDeleteShippingMethod() {
     String shippingMethodId = "6b854219-85c5-4833-b75e-6af7e51332c6";
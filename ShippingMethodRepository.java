@@ -1,10 +1,15 @@
 package com.domain_name.fulfillment.configuration.api.shipping.method;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.domain_name.fulfillment.configuration.api.site.SiteIdEntity;
+
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -16,31 +21,96 @@ public interface ShippingMethodRepository extends CrudRepository<ShippingMethodE
 
   Stream<ShippingMethodEntity> findBySiteIdNameOrderByPosition(String name);
 
-  @Query(nativeQuery = true, value =
-  "select count(smc.shipping_method_id) > 0 FROM site_shipping_method_configuration smc"
-      + "   inner join shipping_method_channel_mapping smcm on (smc.id = smcm.shipping_method_id and smcm.channel_id in (select channel_id from channel where LOWER(channel_name) in (:channels)))  or length(concat(:channels)) = 0"
-      + "   inner join shipping_method_product_type_mapping smpm on (smc.id = smpm.shipping_method_id and smpm.product_type_id in (select product_type_id from product_type where product_type_name in (:productTypes))) or length(concat(:productTypes)) = 0"
-      + "   inner join shipping_method_carrier_string smcs on (smc.id = smcs.shipping_method_id and smcs.carrier_string in (:carrierStringRecords)) or length(concat(:carrierStringRecords)) = 0 "
-      + " where smc.site_id = :siteId and smc.enabled = true and (smc.carrier_service=:carrierService or :carrierService is null) and ((:availabilityStatus\\:\\:varchar[] && availability_status) or (''=  ANY(:availabilityStatus) and availability_status is null) "
-      + " or cardinality (:availabilityStatus) = 0)")
-      Boolean existsByUniqueSiteIdParameters(@Param("siteId") Integer siteId,
-          @Param("channels") List<String> channels,
-          @Param("productTypes") List<String> productTypes,
-          @Param("carrierStringRecords") List<String> carrierStringRecords,
-          @Param("carrierService") String carrierService,
-          @Param("availabilityStatus") String[] availabilityStatus);
-
-  @Query(nativeQuery = true, value = "select count(smc.id) > 0" +
-      " from site_shipping_method_configuration smc " +
-      "         inner join shipping_method_channel_mapping smcm on smc.id = smcm.shipping_method_id inner join channel c on (c.channel_id = smcm.channel_id and LOWER(c.channel_name) in (:channels)) or length(concat(:channels)) = 0 "
-      +
-      "         inner join shipping_method_product_type_mapping smp on smc.id = smp.shipping_method_id inner join product_type p on (p.product_type_id = smp.product_type_id and p.product_type_name in (:productTypes)) or length(concat(:productTypes)) = 0 "
-      +
-      "         inner join shipping_method_carrier_string smcs on (smc.id = smcs.shipping_method_id and smcs.carrier_string in (:carrierStringRecords)) or length(concat(:carrierStringRecords)) = 0 "
-      +
-      "where smc.site_id = :siteId " +
-      "and (smc.carrier_service =:carrierService or :carrierService is null) " +
-      "and smc.id <> :shippingMethodId and smc.enabled=true and ((:availabilityStatus\\:\\:varchar[] && availability_status) or cardinality (:availabilityStatus) = 0 )")
+  /**
+   * Loads a page of shipping methods, whose lazy collections are then initialized for the whole
+   * page at once through {@code hibernate.default_batch_fetch_size}. It must be called inside a
+   * transaction.
+   *
+   * @param ids of the shipping methods, at most the batch fetch size
+   * @return shipping methods found
+   */
+  List<ShippingMethodEntity> findAllByShippingMethodIdIn(Collection<UUID> ids);
+
+  /**
+   * Loads the whole shipping method aggregate of a site for the read path. The site is joined
+   * in the same statement and every lazy collection (channels, product types, carrier strings,
+   * rules) is initialized for all the returned methods at once through
+   * {@code hibernate.default_batch_fetch_size}, so the load costs a fixed number of statements
+   * instead of one per method and collection. It must be called inside a transaction.
+   *
+   * @param name of the site
+   * @return shipping methods ordered by position
+   */
+  @EntityGraph(attributePaths = "siteId")
+  List<ShippingMethodEntity> findAllBySiteIdNameOrderByPosition(String name);
+
+  @Query("select sm.siteId from ShippingMethodEntity sm where sm.shippingMethodId = :id")
+  Optional<SiteIdEntity> findSiteByShippingMethodId(@Param("id") UUID id);
+
+  /**
+   * Bumps the version of the shipping methods of a site. The row stays locked until the
+   * transaction ends, which serializes the writes of the site, see
+   * {@link ShippingMethodConflictIndex}.
+   *
+   * @param siteId to be written
+   * @return new version of the site
+   */
+  @Query(nativeQuery = true, value = "insert into site_shipping_method_version (site_id, version)"
+      + " values (:siteId, 1) on conflict (site_id) do update"
+      + " set version = site_shipping_method_version.version + 1 returning version")
+  long lockSiteShippingMethods(@Param("siteId") Integer siteId);
+
+  /**
+   * Read-only, so it is routed like the read of the shipping methods it versions: the version
+   * is never newer than the data read after it.
+   *
+   * @param name of the site
+   * @return version of the shipping methods of the site, empty while they were never written
+   */
+  @Transactional(readOnly = true)
+  @Query("select v.version from SiteShippingMethodVersionEntity v, SiteIdEntity s"
+      + " where v.siteId = s.id and s.name = :name")
+  Optional<Long> findSiteShippingMethodVersion(@Param("name") String name);
+
+  /**
+   * Checks the unique parameters of a site against the precomputed keys of its enabled shipping
+   * methods, see {@link #insertUniqueKeys}. An empty channel, product type or carrier string list
+   * and a null carrier service match anything, an empty availability status array matches
+   * anything and an empty string in it matches the methods without availability status.
+   */
+  @Query(nativeQuery = true, value = "select exists (select 1 from shipping_method_unique_key k"
+      + " where k.site_id = :siteId"
+      + " and (k.channel in (:channels) or length(concat(:channels)) = 0)"
+      + " and (k.product_type in (:productTypes) or length(concat(:productTypes)) = 0)"
+      + " and (k.carrier_string in (:carrierStringRecords) or length(concat(:carrierStringRecords)) = 0)"
+      + " and (k.carrier_service = :carrierService or :carrierService is null)"
+      + " and (k.availability_status = any(:availabilityStatus\\:\\:varchar[])"
+      + " or ('' = any(:availabilityStatus) and k.without_availability_status)"
+      + " or cardinality(:availabilityStatus) = 0))")
+  Boolean existsByUniqueSiteIdParameters(@Param("siteId") Integer siteId,
+      @Param("channels") List<String> channels,
+      @Param("productTypes") List<String> productTypes,
+      @Param("carrierStringRecords") List<String> carrierStringRecords,
+      @Param("carrierService") String carrierService,
+      @Param("availabilityStatus") String[] availabilityStatus);
+
+  /**
+   * Checks the unique parameters of a patched shipping method against the precomputed keys of
+   * the other enabled methods of its site, with the rules of
+   * {@link #existsByUniqueSiteIdParameters} except that an empty string in the availability
+   * status array matches nothing. Like the join query it replaced, only methods mapped to at least
+   * one channel and one product type can match, even when channels or product types are not
+   * unique parameters of the site.
+   */
+  @Query(nativeQuery = true, value = "select exists (select 1 from shipping_method_unique_key k"
+      + " where k.site_id = :siteId and k.shipping_method_id <> :shippingMethodId"
+      + " and k.channel is not null and k.product_type is not null"
+      + " and (k.channel in (:channels) or length(concat(:channels)) = 0)"
+      + " and (k.product_type in (:productTypes) or length(concat(:productTypes)) = 0)"
+      + " and (k.carrier_string in (:carrierStringRecords) or length(concat(:carrierStringRecords)) = 0)"
+      + " and (k.carrier_service = :carrierService or :carrierService is null)"
+      + " and (k.availability_status = any(:availabilityStatus\\:\\:varchar[])"
+      + " or cardinality(:availabilityStatus) = 0))")
   Boolean existsShippingMethodsByUniqueParamsAndShippingMethodId(@Param("siteId") Integer siteId,
       @Param("channels") List<String> channels,
       @Param("productTypes") List<String> productTypes,
@@ -49,8 +119,90 @@ public interface ShippingMethodRepository extends CrudRepository<ShippingMethodE
       @Param("shippingMethodId") Integer shippingMethodId,
       @Param("availabilityStatus") String[] availabilityStatus);
 
+  String INSERT_UNIQUE_KEYS = "insert into shipping_method_unique_key (shipping_method_id,"
+      + " site_id, channel, product_type, carrier_string, carrier_service, availability_status,"
+      + " without_availability_status)"
+      + " select smc.id, smc.site_id, lower(c.channel_name), p.product_type_name,"
+      + " smcs.carrier_string, smc.carrier_service, s.status, smc.availability_status is null"
+      + " from site_shipping_method_configuration smc"
+      + " left join shipping_method_channel_mapping smcm on smcm.shipping_method_id = smc.id"
+      + " left join channel c on c.channel_id = smcm.channel_id"
+      + " left join shipping_method_product_type_mapping smpm on smpm.shipping_method_id = smc.id"
+      + " left join product_type p on p.product_type_id = smpm.product_type_id"
+      + " left join shipping_method_carrier_string smcs on smcs.shipping_method_id = smc.id"
+      + " left join lateral unnest(smc.availability_status) s(status) on true"
+      + " where smc.enabled = true";
+
+  @Modifying(flushAutomatically = true)
+  @Query(nativeQuery = true, value = "delete from shipping_method_unique_key"
+      + " where shipping_method_id in (:ids)")
+  Integer deleteUniqueKeys(@Param("ids") Collection<Integer> ids);
+
+  /**
+   * Writes the uniqueness keys of the given shipping methods, one row for every combination of
+   * their channels, product types, carrier strings and availability statuses. An empty
+   * dimension is written as null so that it only matches a probe that ignores it. Disabled
+   * methods get no key since they never conflict.
+   *
+   * @param ids of the shipping methods, their previous keys must have been deleted
+   * @return number of keys written
+   */
+  @Modifying(flushAutomatically = true)
+  @Query(nativeQuery = true, value = INSERT_UNIQUE_KEYS + " and smc.id in (:ids)")
+  Integer insertUniqueKeys(@Param("ids") Collection<Integer> ids);
+
+  @Modifying(flushAutomatically = true)
+  @Query(nativeQuery = true, value = "delete from shipping_method_unique_key"
+      + " where site_id = :siteId")
+  Integer deleteSiteUniqueKeys(@Param("siteId") Integer siteId);
+
+  /**
+   * Writes the uniqueness keys of all the shipping methods of a site, see
+   * {@link #insertUniqueKeys}.
+   *
+   * @param siteId of the shipping methods, its previous keys must have been deleted
+   * @return number of keys written
+   */
+  @Modifying(flushAutomatically = true)
+  @Query(nativeQuery = true, value = INSERT_UNIQUE_KEYS + " and smc.site_id = :siteId")
+  Integer insertSiteUniqueKeys(@Param("siteId") Integer siteId);
+
+  /**
+   * Moves the uniqueness keys of a site locked by {@link #lockSiteShippingMethods} to its new
+   * version, provided they were up to date with the previous one.
+   *
+   * @param siteId locked
+   * @return 1 when the keys were moved, 0 when a write skipped them and they must be rebuilt
+   */
+  @Modifying
+  @Query(nativeQuery = true, value = "update site_shipping_method_version"
+      + " set unique_keys_version = version"
+      + " where site_id = :siteId and unique_keys_version = version - 1")
+  Integer advanceUniqueKeysVersion(@Param("siteId") Integer siteId);
+
+  /**
+   * Marks the uniqueness keys of a site locked by {@link #lockSiteShippingMethods} as rebuilt at
+   * its new version.
+   *
+   * @param siteId locked
+   * @return number of sites updated
+   */
+  @Modifying
+  @Query(nativeQuery = true, value = "update site_shipping_method_version"
+      + " set unique_keys_version = version where site_id = :siteId")
+  Integer resetUniqueKeysVersion(@Param("siteId") Integer siteId);
+
   Integer deleteByShippingMethodId(UUID id);
 
+  /**
+   * @param siteId of the shipping methods
+   * @return enabled default shipping methods of the site, the ones
+   *         {@link #setDefaultSiteIdShippingMethodToNotDefault} demotes
+   */
+  @Query("select sm from ShippingMethodEntity sm where sm.siteId.id = :siteId"
+      + " and sm.enabled = true and sm.isDefault = true")
+  List<ShippingMethodEntity> findDefaultShippingMethodsBySiteId(@Param("siteId") Integer siteId);
+
   @Modifying
   @Query(nativeQuery = true, value = "update site_shipping_method_configuration set default_shipping_method = false where site_id = :siteId and enabled = true and default_shipping_method = true")
   Integer setDefaultSiteIdShippingMethodToNotDefault(@Param("siteId") Integer siteId);
@@ -0,0 +1,148 @@
+package com.domain_name.fulfillment.configuration.api.shipping.method;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.domain_name.fulfillment.configuration.api.channel.ChannelEnum;
+import com.domain_name.fulfillment.configuration.api.channel.ChannelRepository;
+import com.domain_name.fulfillment.configuration.api.products.type.ProductTypeEnum;
+import com.domain_name.fulfillment.configuration.api.products.type.ProductTypeRepository;
+import com.domain_name.fulfillment.configuration.api.shipping.carrier.string.CarrierStringEntity;
+import com.domain_name.fulfillment.configuration.api.site.SiteIdEntity;
+import com.domain_name.fulfillment.configuration.api.site.SiteIdRepository;
+
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.properties.hibernate.enable_lazy_load_no_trans=false"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers
+class ShippingMethodRepositoryIT {
+
+  private static final String SITE_ID = "domain_name-IT";
+  private static final String SMALL_SITE_ID = "domain_name-IT-SMALL";
+  private static final int SHIPPING_METHODS = 45;
+  private static final int SMALL_SITE_SHIPPING_METHODS = 3;
+
+  @Container
+  static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13-alpine");
+
+  @DynamicPropertySource
+  static void datasourceProperties(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", postgres::getJdbcUrl);
+    registry.add("spring.datasource.hikari.jdbc-url", postgres::getJdbcUrl);
+    registry.add("spring.datasource.hikari.username", postgres::getUsername);
+    registry.add("spring.datasource.hikari.password", postgres::getPassword);
+  }
+
+  @Autowired
+  ShippingMethodRepository shippingMethodRepository;
+
+  @Autowired
+  SiteIdRepository siteIdRepository;
+
+  @Autowired
+  ChannelRepository channelRepository;
+
+  @Autowired
+  ProductTypeRepository productTypeRepository;
+
+  @Autowired
+  EntityManager entityManager;
+
+  ShippingMethodResponseConverter responseConverter = new ShippingMethodResponseConverter();
+
+  Statistics statistics;
+
+  @BeforeEach
+  void setup() {
+    saveSite(SITE_ID, SHIPPING_METHODS);
+    saveSite(SMALL_SITE_ID, SMALL_SITE_SHIPPING_METHODS);
+    entityManager.flush();
+    entityManager.clear();
+    statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class)
+        .getStatistics();
+    statistics.clear();
+  }
+
+  private void saveSite(String name, int shippingMethods) {
+    SiteIdEntity siteId = siteIdRepository.save(SiteIdEntity.builder()
+        .name(name)
+        .uniqueParameters(Map.of("channels", "channel"))
+        .build());
+    IntStream.range(0, shippingMethods)
+        .forEach(position -> shippingMethodRepository.save(buildShippingMethod(siteId, position)));
+  }
+
+  private ShippingMethodEntity buildShippingMethod(SiteIdEntity siteId, int position) {
+    return ShippingMethodEntity.builder()
+        .shippingMethodId(UUID.randomUUID())
+        .name(Map.of("de-AT", "Standardlieferung " + position))
+        .description(Map.of("de-AT", "Standardlieferung"))
+        .prices(ShippingMethodPrice.builder()
+            .baseFixedPrice(3.0)
+            .threshold(50.0)
+            .memberFixedPrices(MemberFixedPrices.builder().tier1(1.0).tier2(2.0).build())
+            .build())
+        .fulfillmentTypes(List.of("HOMEDELIVERY"))
+        .enabled(position % 2 == 0)
+        .isDefault(false)
+        .carrierName("carrierName")
+        .carrierService("Express")
+        .position((short) position)
+        .siteId(siteId)
+        .channels(channelRepository.findByChannelNameIn(List.of(ChannelEnum.WEB)))
+        .productTypes(productTypeRepository.findByProductTypeNameIn(
+            List.of(ProductTypeEnum.INLINE, ProductTypeEnum.BACKORDER)))
+        .carrierStrings(List.of(
+            CarrierStringEntity.builder().carrierString("carrier" + position).build()))
+        .createdBy("someone")
+        .createdDate(LocalDateTime.now())
+        .rules(List.of())
+        .build();
+  }
+
+  /**
+   * @return statements executed to load the site and render every response of it
+   */
+  private long statementsToRender(String siteName, int expectedShippingMethods) {
+    entityManager.clear();
+    statistics.clear();
+    List<ShippingMethodResponse> responses = shippingMethodRepository
+        .findAllBySiteIdNameOrderByPosition(siteName).stream()
+        .map(responseConverter::convert).toList();
+    Assertions.assertEquals(expectedShippingMethods, responses.size());
+    return statistics.getPrepareStatementCount();
+  }
+
+  @Test
+  void testFindAllBySiteIdNameLoadsAggregateInFixedStatements() {
+    long small = statementsToRender(SMALL_SITE_ID, SMALL_SITE_SHIPPING_METHODS);
+    long large = statementsToRender(SITE_ID, SHIPPING_METHODS);
+
+    // whatever the response reads, a lazy association loaded per method would make the larger
+    // site take more statements
+    Assertions.assertEquals(small, large, "statements executed: " + small + " for "
+        + SMALL_SITE_SHIPPING_METHODS + " methods, " + large + " for " + SHIPPING_METHODS);
+    // at most one for the methods with their site and one per lazy collection
+    Assertions.assertTrue(large <= 5, "statements executed: " + large);
+  }
+}
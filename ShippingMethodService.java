@@ -3,9 +3,14 @@ package com.domain_name.fulfillment.configuration.api.shipping.method;
 import static com.domain_name.fulfillment.configuration.api.exception.ErrorConstants.RECORD_NOT_FOUND_CODE_SHIPPING;
 import static com.domain_name.fulfillment.configuration.api.exception.ErrorConstants.SITEID_NOT_FOUND_CODE;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -24,9 +29,11 @@ import com.domain_name.fulfillment.configuration.api.constant.DbConstants;
 import com.domain_name.fulfillment.configuration.api.exception.ErrorConstants;
 import com.domain_name.fulfillment.configuration.api.exception.NotFoundException;
 import com.domain_name.fulfillment.configuration.api.exception.ValidationException;
+import com.domain_name.fulfillment.configuration.api.persistence.ReadReplicaRouting;
 import com.domain_name.fulfillment.configuration.api.products.type.ProductTypeEntity;
 import com.domain_name.fulfillment.configuration.api.products.type.ProductTypeEnum;
 import com.domain_name.fulfillment.configuration.api.sfcc.SFCCService;
+import com.domain_name.fulfillment.configuration.api.sfcc.SFCCSyncOutboxService;
 import com.domain_name.fulfillment.configuration.api.shipping.carrier.string.CarrierStringEntity;
 import com.domain_name.fulfillment.configuration.api.shipping.carrier.string.CarrierStringRecord;
 import com.domain_name.fulfillment.configuration.api.shipping.carrier.string.CarrierStringService;
@@ -49,14 +56,19 @@ public class ShippingMethodService {
   public final SFCCService sfccService;
   public final CarrierStringService carrierStringService;
   public final ShippingMethodResponseConverter responseConverter;
+  public final ShippingMethodSnapshotCache snapshotCache;
+  public final SFCCSyncOutboxService sfccSyncOutboxService;
+  public final ShippingMethodConflictIndex conflictIndex;
+  public final ReadReplicaRouting readReplicaRouting;
 
   @Transactional(readOnly = true)
   public List<ShippingMethodResponse> getAllForSiteId(String siteId) {
+    readReplicaRouting.usePrimaryIfRecentlyWritten(siteId);
     if (!siteIdRepository.existsByName(siteId)) {
       throw new NotFoundException(new HttpClientErrorException(HttpStatus.NOT_FOUND),
           SITEID_NOT_FOUND_CODE, siteId);
     }
-    return shippingMethodRepository.findBySiteIdNameOrderByPosition(siteId)
+    return shippingMethodRepository.findAllBySiteIdNameOrderByPosition(siteId).stream()
         .map(responseConverter::convert).toList();
   }
 
@@ -69,11 +81,79 @@ public class ShippingMethodService {
     }
     carrierStringService.validateCarrierStrings(shippingRequest.getCarrierStringRecords());
     validateUniqueParametersExists(siteId.getUniqueParameters(), shippingRequest.getSiteId());
-    validatePostRequestIsValid(shippingRequest, siteId);
-    ShippingMethodEntity shippingMethod = saveShippingMethod(shippingRequest, siteId);
+    Optional<ShippingMethodConflicts> conflicts = conflictIndex.lock(siteId);
+    validatePostRequestIsValid(shippingRequest, siteId, conflicts);
+    ShippingMethodEntity shippingMethod = saveShippingMethod(shippingRequest, siteId, conflicts);
+    conflicts.ifPresent(siteConflicts -> conflictIndex.publishAfterCommit(
+        siteConflicts.with(List.of(shippingMethod))));
+    readReplicaRouting.recordWriteAfterCommit(siteId.getName());
+    snapshotCache.evictAfterCommit(siteId.getName());
     return responseConverter.convert(shippingMethod);
   }
 
+  /**
+   * Creates a batch of shipping methods. Uniqueness is checked against the other methods of the
+   * batch in memory and against one read of every site involved, and the methods are persisted
+   * in a single flush so they go through JDBC batching. The SFCC sync outbox coalesces the
+   * changes of each site into one export.
+   *
+   * @param shippingRequests to be created, possibly for several sites
+   * @return created shipping methods in the order of the requests
+   */
+  @Transactional
+  public List<ShippingMethodResponse> createShippingMethods(
+      List<ShippingMethodPostRequest> shippingRequests) {
+    Map<String, List<ShippingMethodPostRequest>> requestsBySite = shippingRequests.stream()
+        .collect(Collectors.groupingBy(ShippingMethodPostRequest::getSiteId, LinkedHashMap::new,
+            Collectors.toList()));
+    Map<String, SiteIdEntity> siteIds = new LinkedHashMap<>();
+    requestsBySite.keySet().forEach(siteName -> {
+      SiteIdEntity siteId = siteIdRepository.findByName(siteName);
+      if (siteId == null) {
+        throw new ValidationException(new HttpClientErrorException(HttpStatus.UNPROCESSABLE_ENTITY),
+            ErrorConstants.INVALID_FIELD_CODE, "siteId");
+      }
+      siteIds.put(siteName, siteId);
+    });
+
+    // sites are locked in id order, so concurrent bulk requests for the same sites cannot deadlock
+    Map<String, Optional<ShippingMethodConflicts>> siteConflicts = new LinkedHashMap<>();
+    List<Map.Entry<String, SiteIdEntity>> sitesInLockOrder = siteIds.entrySet().stream()
+        .sorted(Map.Entry.comparingByValue(Comparator.comparing(SiteIdEntity::getId)))
+        .toList();
+    for (Map.Entry<String, SiteIdEntity> site : sitesInLockOrder) {
+      String siteName = site.getKey();
+      SiteIdEntity siteId = site.getValue();
+      List<ShippingMethodPostRequest> requests = requestsBySite.get(siteName);
+      requests.forEach(request -> carrierStringService
+          .validateCarrierStrings(request.getCarrierStringRecords()));
+      validateUniqueParametersExists(siteId.getUniqueParameters(), siteName);
+      validateBulkDefault(requests);
+      Optional<ShippingMethodConflicts> conflicts = conflictIndex.lock(siteId);
+      validateBulkPostRequestIsValid(requests, siteId, conflicts);
+      siteConflicts.put(siteName, conflicts);
+    }
+
+    Map<ShippingMethodPostRequest, ShippingMethodEntity> shippingMethods = new IdentityHashMap<>();
+    requestsBySite.forEach((siteName, requests) -> {
+      SiteIdEntity siteId = siteIds.get(siteName);
+      List<ShippingMethodEntity> siteShippingMethods = new ArrayList<>(requests.size());
+      requests.forEach(request -> {
+        ShippingMethodEntity shippingMethod = shippingMethodEntityConverter
+            .fromShippingPostRequest(request, siteId);
+        shippingMethods.put(request, shippingMethod);
+        siteShippingMethods.add(shippingMethod);
+      });
+      saveSiteShippingMethods(siteShippingMethods, siteConflicts.get(siteName));
+      siteConflicts.get(siteName).ifPresent(conflicts -> conflictIndex.publishAfterCommit(
+          conflicts.with(siteShippingMethods)));
+      readReplicaRouting.recordWriteAfterCommit(siteName);
+      snapshotCache.evictAfterCommit(siteName);
+    });
+    return shippingRequests.stream().map(shippingMethods::get).map(responseConverter::convert)
+        .toList();
+  }
+
   @Transactional
   public ShippingMethodResponse updateShippingMethod(ShippingMethodEntity shippingMethod,
       ShippingMethodPatchRequest request) {
@@ -82,18 +162,39 @@ public class ShippingMethodService {
         shippingMethod);
     validateUniqueParametersExists(shippingMethod.getSiteId().getUniqueParameters(),
         shippingMethod.getSiteId().getName());
-    validatePatchRequestIsValid(request, shippingMethod);
-    ShippingMethodEntity updatedShippingMethod = saveUpdatedShippingMethod(request, shippingMethod);
+    Optional<ShippingMethodConflicts> conflicts = conflictIndex.lock(shippingMethod.getSiteId());
+    validatePatchRequestIsValid(request, shippingMethod, conflicts);
+    ShippingMethodEntity updatedShippingMethod = saveUpdatedShippingMethod(request, shippingMethod,
+        conflicts);
+    conflicts.ifPresent(siteConflicts -> conflictIndex.publishAfterCommit(
+        siteConflicts.with(List.of(updatedShippingMethod))));
+    readReplicaRouting.recordWriteAfterCommit(shippingMethod.getSiteId().getName());
+    snapshotCache.evictAfterCommit(shippingMethod.getSiteId().getName());
     return responseConverter.convert(updatedShippingMethod);
   }
 
   @Transactional
   public void deleteShippingMethod(UUID shippingMethodId) {
+    Optional<SiteIdEntity> siteId = shippingMethodRepository.findSiteByShippingMethodId(
+        shippingMethodId);
+    Optional<ShippingMethodConflicts> conflicts = siteId.flatMap(conflictIndex::lock);
+    Optional<ShippingMethodEntity> syncedShippingMethod = shippingMethodRepository
+        .findByShippingMethodId(shippingMethodId)
+        .filter(sfccService::shouldSyncShippingMethod);
     int queryCount = shippingMethodRepository.deleteByShippingMethodId(shippingMethodId);
     if (queryCount == 0) {
       throw new NotFoundException(new HttpClientErrorException(HttpStatus.NOT_FOUND),
           RECORD_NOT_FOUND_CODE_SHIPPING, shippingMethodId.toString());
     }
+    syncedShippingMethod.ifPresent(sfccSyncOutboxService::enqueueDelete);
+    conflicts.ifPresent(siteConflicts -> conflictIndex.publishAfterCommit(
+        siteConflicts.without(shippingMethodId)));
+    // reads are pinned to the primary before the snapshot is evicted, so it is not reloaded
+    // from a replica that has not replayed the write yet
+    siteId.map(SiteIdEntity::getName).ifPresentOrElse(readReplicaRouting::recordWriteAfterCommit,
+        readReplicaRouting::recordWriteToAllSitesAfterCommit);
+    siteId.map(SiteIdEntity::getName)
+        .ifPresentOrElse(snapshotCache::evictAfterCommit, snapshotCache::evictAllAfterCommit);
   }
 
   private void validateUniqueParametersExists(Map<String, String> uniqueParameters, String siteId) {
@@ -104,35 +205,105 @@ public class ShippingMethodService {
   }
 
   private void validatePostRequestIsValid(ShippingMethodPostRequest shippingRequest,
-      SiteIdEntity siteId) {
-    if (validatePostRequest(shippingRequest, siteId)) {
+      SiteIdEntity siteId, Optional<ShippingMethodConflicts> conflicts) {
+    if (validatePostRequest(shippingRequest, siteId, conflicts)) {
       throw new DataIntegrityViolationException(ErrorConstants.CONSTRAINT_VIOLATION_CODE,
           new Exception());
     }
   }
 
   private ShippingMethodEntity saveShippingMethod(ShippingMethodPostRequest shippingRequest,
-      SiteIdEntity siteId) {
+      SiteIdEntity siteId, Optional<ShippingMethodConflicts> conflicts) {
     ShippingMethodEntity shippingMethod = shippingMethodEntityConverter
         .fromShippingPostRequest(shippingRequest, siteId);
     checkDisableDefaultSiteIdShippingMethod(shippingMethod);
     shippingMethodRepository.save(shippingMethod);
+    refreshUniqueKeys(List.of(shippingMethod), conflicts);
     if (sfccService.shouldSyncShippingMethod(shippingMethod)) {
-      sfccService.syncShippingMethod(shippingMethod);
+      sfccSyncOutboxService.enqueue(shippingMethod);
     }
     return shippingMethod;
   }
 
+  private void saveSiteShippingMethods(List<ShippingMethodEntity> shippingMethods,
+      Optional<ShippingMethodConflicts> conflicts) {
+    shippingMethods.stream()
+        .filter(shippingMethod -> shippingMethod.getEnabled() && shippingMethod.getIsDefault())
+        .findFirst()
+        .ifPresent(this::checkDisableDefaultSiteIdShippingMethod);
+    shippingMethodRepository.saveAll(shippingMethods);
+    refreshUniqueKeys(shippingMethods, conflicts);
+    shippingMethods.stream()
+        .filter(sfccService::shouldSyncShippingMethod)
+        .forEach(sfccSyncOutboxService::enqueue);
+  }
+
+  private void validateBulkDefault(List<ShippingMethodPostRequest> shippingRequests) {
+    long defaults = shippingRequests.stream()
+        .filter(request -> request.getEnabled() && request.getIsDefault())
+        .count();
+    if (defaults > 1) {
+      throw new ValidationException(new HttpClientErrorException(HttpStatus.UNPROCESSABLE_ENTITY),
+          ErrorConstants.INVALID_FIELD_CODE, "isDefault");
+    }
+  }
+
+  private void validateBulkPostRequestIsValid(List<ShippingMethodPostRequest> shippingRequests,
+      SiteIdEntity siteId, Optional<ShippingMethodConflicts> conflicts) {
+    Map<String, String> uniqueParams = siteId.getUniqueParameters();
+    ShippingMethodConflicts existing = conflicts.orElse(null);
+    List<ShippingMethodUniqueKey> accepted = new ArrayList<>(shippingRequests.size());
+    for (ShippingMethodPostRequest shippingRequest : shippingRequests) {
+      if (validatePostRequestWithEnableAndUniqueParams(uniqueParams, shippingRequest)) {
+        if (existing == null) {
+          existing = ShippingMethodConflicts.of(siteId.getId(), 0,
+              shippingMethodRepository.findAllBySiteIdNameOrderByPosition(siteId.getName()));
+        }
+        ShippingMethodUniqueKey probe = ShippingMethodUniqueKey.probe(shippingRequest,
+            uniqueParams);
+        if (existing.conflictsWith(probe) || accepted.stream().anyMatch(probe::conflictsWith)) {
+          throw new DataIntegrityViolationException(ErrorConstants.CONSTRAINT_VIOLATION_CODE,
+              new Exception());
+        }
+      }
+      if (shippingRequest.getEnabled()) {
+        accepted.add(ShippingMethodUniqueKey.candidate(shippingRequest));
+      }
+    }
+  }
+
+  /**
+   * Demotes the other default shipping methods of the site when the method becomes its default.
+   * The bulk update bypasses the entities, so the demoted methods are loaded first and enqueued
+   * for SFCC as they are once demoted.
+   */
   private void checkDisableDefaultSiteIdShippingMethod(ShippingMethodEntity shippingMethod) {
     if (shippingMethod.getEnabled() && shippingMethod.getIsDefault()) {
+      List<ShippingMethodEntity> demoted = shippingMethodRepository
+          .findDefaultShippingMethodsBySiteId(shippingMethod.getSiteId().getId()).stream()
+          .filter(defaultShippingMethod -> defaultShippingMethod != shippingMethod
+              && !Objects.equals(defaultShippingMethod.getShippingMethodId(),
+                  shippingMethod.getShippingMethodId()))
+          .toList();
       shippingMethodRepository.setDefaultSiteIdShippingMethodToNotDefault(
           shippingMethod.getSiteId().getId());
+      demoted.forEach(defaultShippingMethod -> {
+        defaultShippingMethod.setIsDefault(false);
+        if (sfccService.shouldSyncShippingMethod(defaultShippingMethod)) {
+          sfccSyncOutboxService.enqueue(defaultShippingMethod);
+        }
+      });
     }
   }
 
   private boolean validatePostRequest(ShippingMethodPostRequest shippingRequest,
-      SiteIdEntity siteId) {
+      SiteIdEntity siteId, Optional<ShippingMethodConflicts> conflicts) {
     Map<String, String> uniqueParams = siteId.getUniqueParameters();
+    if (conflicts.isPresent()) {
+      return validatePostRequestWithEnableAndUniqueParams(uniqueParams, shippingRequest)
+          && conflicts.get().conflictsWith(
+              ShippingMethodUniqueKey.probe(shippingRequest, uniqueParams));
+    }
     List<String> channels = List.of(EMPTY);
     List<String> productTypes = List.of(EMPTY);
     List<String> carrierStrings = List.of(EMPTY);
@@ -175,9 +346,13 @@ public class ShippingMethodService {
   }
 
   private void validatePatchRequestIsValid(ShippingMethodPatchRequest request,
-      ShippingMethodEntity shippingMethod) {
+      ShippingMethodEntity shippingMethod, Optional<ShippingMethodConflicts> conflicts) {
     if (isPatchShippingMethodEnabled(request, shippingMethod)
-        && validatePatchRequestWithUniqueParams(request, shippingMethod)) {
+        && conflicts.map(siteConflicts -> siteConflicts.conflictsWith(
+            ShippingMethodUniqueKey.probe(request, shippingMethod,
+                shippingMethod.getSiteId().getUniqueParameters()),
+            shippingMethod.getShippingMethodId()))
+        .orElseGet(() -> validatePatchRequestWithUniqueParams(request, shippingMethod))) {
       throw new DataIntegrityViolationException(ErrorConstants.CONSTRAINT_VIOLATION_CODE,
           new Exception());
     }
@@ -215,7 +390,7 @@ public class ShippingMethodService {
         shippingMethod.getId(), availabilityStatus.toArray(String[]::new));
   }
 
-  private static List<String> getPatchChannels(ShippingMethodPatchRequest request,
+  static List<String> getPatchChannels(ShippingMethodPatchRequest request,
       ShippingMethodEntity shippingMethod) {
     if (request.getChannels() == null) {
       return shippingMethod.getChannels().stream().map(ChannelEntity::getChannelName)
@@ -225,7 +400,7 @@ public class ShippingMethodService {
         .toList();
   }
 
-  private static List<String> getPatchProductTypes(ShippingMethodPatchRequest request,
+  static List<String> getPatchProductTypes(ShippingMethodPatchRequest request,
       ShippingMethodEntity shippingMethod) {
     if (request.getProductTypes() == null) {
       return shippingMethod.getProductTypes().stream().map(ProductTypeEntity::getProductTypeName)
@@ -261,16 +436,39 @@ public class ShippingMethodService {
   }
 
   private ShippingMethodEntity saveUpdatedShippingMethod(ShippingMethodPatchRequest request,
-      ShippingMethodEntity shippingMethod) {
+      ShippingMethodEntity shippingMethod, Optional<ShippingMethodConflicts> conflicts) {
+    // the merge may update the entity in place
+    String previousCustomId = shippingMethod.getCustomId();
     ShippingMethodEntity mergedShippingMethod = shippingMethodEntityConverter
         .mergeShippingMethodWithPatchRequest(shippingMethod, request);
     checkDisableDefaultSiteIdShippingMethod(mergedShippingMethod);
     ShippingMethodEntity updatedShippingMethod = shippingMethodRepository
         .save(mergedShippingMethod);
+    refreshUniqueKeys(List.of(mergedShippingMethod), conflicts);
     if (sfccService.shouldSyncShippingMethod(mergedShippingMethod)) {
-      sfccService.syncShippingMethod(mergedShippingMethod);
+      if (previousCustomId != null
+          && !previousCustomId.equals(mergedShippingMethod.getCustomId())) {
+        sfccSyncOutboxService.enqueueCustomIdChange(mergedShippingMethod, previousCustomId);
+      } else {
+        sfccSyncOutboxService.enqueue(mergedShippingMethod);
+      }
     }
     return updatedShippingMethod;
   }
+
+  /**
+   * Rewrites the uniqueness keys the unique parameter checks look up, once the shipping methods
+   * and their mappings have been saved. They are only looked up while the conflict index is
+   * disabled, otherwise the index is updated once the write commits.
+   */
+  private void refreshUniqueKeys(List<ShippingMethodEntity> shippingMethods,
+      Optional<ShippingMethodConflicts> conflicts) {
+    if (conflicts.isPresent()) {
+      return;
+    }
+    List<Integer> ids = shippingMethods.stream().map(ShippingMethodEntity::getId).toList();
+    shippingMethodRepository.deleteUniqueKeys(ids);
+    shippingMethodRepository.insertUniqueKeys(ids);
+  }
 }
 
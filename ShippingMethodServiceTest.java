@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -15,13 +16,16 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Stream;
 
+import com.domain_name.fulfillment.configuration.api.channel.ChannelEntity;
 import com.domain_name.fulfillment.configuration.api.channel.ChannelEnum;
 import com.domain_name.fulfillment.configuration.api.exception.NotFoundException;
 import com.domain_name.fulfillment.configuration.api.exception.ValidationException;
+import com.domain_name.fulfillment.configuration.api.persistence.ReadReplicaRouting;
+import com.domain_name.fulfillment.configuration.api.products.type.ProductTypeEntity;
 import com.domain_name.fulfillment.configuration.api.products.type.ProductTypeEnum;
 import com.domain_name.fulfillment.configuration.api.sfcc.SFCCService;
+import com.domain_name.fulfillment.configuration.api.sfcc.SFCCSyncOutboxService;
 import com.domain_name.fulfillment.configuration.api.shipping.carrier.string.CarrierStringEntity;
 import com.domain_name.fulfillment.configuration.api.shipping.carrier.string.CarrierStringRecord;
 import com.domain_name.fulfillment.configuration.api.shipping.carrier.string.CarrierStringService;
@@ -54,6 +58,18 @@ public class ShippingMethodServiceTest extends ShippingMethodTestHelper {
   @Mock
   ShippingMethodResponseConverter responseConverter;
 
+  @Mock
+  ShippingMethodSnapshotCache snapshotCache;
+
+  @Mock
+  SFCCSyncOutboxService sfccSyncOutboxService;
+
+  @Mock
+  ShippingMethodConflictIndex conflictIndex;
+
+  @Mock
+  ReadReplicaRouting readReplicaRouting;
+
   @InjectMocks
   ShippingMethodService shippingMethodService;
 
@@ -63,9 +79,8 @@ public class ShippingMethodServiceTest extends ShippingMethodTestHelper {
     ShippingMethodEntity shippingMethod = savedShippingMethod();
     ShippingMethodResponse response = buildResponse();
     Mockito.when(siteIdRepository.existsByName(siteId)).thenReturn(true);
-    Mockito.when(shippingMethodRepository.findBySiteIdNameOrderByPosition(Mockito.eq(siteId)))
-        .thenReturn(Stream.of(shippingMethod)
-        );
+    Mockito.when(shippingMethodRepository.findAllBySiteIdNameOrderByPosition(Mockito.eq(siteId)))
+        .thenReturn(List.of(shippingMethod));
     Mockito.when(responseConverter.convert(Mockito.eq(shippingMethod)))
         .thenReturn(response);
     List<ShippingMethodResponse> responseList = shippingMethodService.getAllForSiteId("domain_name-AT");
@@ -107,7 +122,10 @@ public class ShippingMethodServiceTest extends ShippingMethodTestHelper {
         .existsByUniqueSiteIdParameters(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
             Mockito.any(), Mockito.any());
     Mockito.verify(shippingMethodRepository, Mockito.times(1)).save(Mockito.any());
-    Mockito.verify(sfccService, Mockito.times(1)).syncShippingMethod(Mockito.any());
+    Mockito.verify(shippingMethodRepository, Mockito.times(1)).deleteUniqueKeys(Mockito.anyList());
+    Mockito.verify(shippingMethodRepository, Mockito.times(1)).insertUniqueKeys(Mockito.anyList());
+    Mockito.verify(sfccSyncOutboxService, Mockito.times(1)).enqueue(Mockito.any());
+    Mockito.verify(sfccService, Mockito.times(0)).syncShippingMethod(Mockito.any());
   }
 
   @Test
@@ -135,7 +153,8 @@ public class ShippingMethodServiceTest extends ShippingMethodTestHelper {
         .existsByUniqueSiteIdParameters(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
             Mockito.any(), Mockito.any());
     Mockito.verify(shippingMethodRepository, Mockito.times(1)).save(Mockito.any());
-    Mockito.verify(sfccService, Mockito.times(1)).syncShippingMethod(Mockito.any());
+    Mockito.verify(sfccSyncOutboxService, Mockito.times(1)).enqueue(Mockito.any());
+    Mockito.verify(sfccService, Mockito.times(0)).syncShippingMethod(Mockito.any());
   }
 
   @Test
@@ -165,7 +184,7 @@ public class ShippingMethodServiceTest extends ShippingMethodTestHelper {
         .existsByUniqueSiteIdParameters(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
             Mockito.any(), Mockito.any());
     Mockito.verify(shippingMethodRepository, Mockito.times(0)).save(Mockito.any());
-    Mockito.verify(sfccService, Mockito.times(0)).syncShippingMethod(Mockito.any());
+    Mockito.verify(sfccSyncOutboxService, Mockito.times(0)).enqueue(Mockito.any());
   }
 
   @Test
@@ -193,7 +212,7 @@ public class ShippingMethodServiceTest extends ShippingMethodTestHelper {
         .existsByUniqueSiteIdParameters(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
             Mockito.any(), Mockito.any());
     Mockito.verify(shippingMethodRepository, Mockito.times(0)).save(Mockito.any());
-    Mockito.verify(sfccService, Mockito.times(0)).syncShippingMethod(Mockito.any());
+    Mockito.verify(sfccSyncOutboxService, Mockito.times(0)).enqueue(Mockito.any());
   }
 
   @Test
@@ -220,7 +239,7 @@ public class ShippingMethodServiceTest extends ShippingMethodTestHelper {
         .existsByUniqueSiteIdParameters(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
             Mockito.any(), Mockito.any());
     Mockito.verify(shippingMethodRepository, Mockito.times(0)).save(Mockito.any());
-    Mockito.verify(sfccService, Mockito.times(0)).syncShippingMethod(Mockito.any());
+    Mockito.verify(sfccSyncOutboxService, Mockito.times(0)).enqueue(Mockito.any());
   }
 
   @Test
@@ -247,7 +266,7 @@ public class ShippingMethodServiceTest extends ShippingMethodTestHelper {
         .existsByUniqueSiteIdParameters(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
             Mockito.any(), Mockito.any());
     Mockito.verify(shippingMethodRepository, Mockito.times(0)).save(Mockito.any());
-    Mockito.verify(sfccService, Mockito.times(0)).syncShippingMethod(Mockito.any());
+    Mockito.verify(sfccSyncOutboxService, Mockito.times(0)).enqueue(Mockito.any());
   }
 
   @Test
@@ -274,7 +293,7 @@ public class ShippingMethodServiceTest extends ShippingMethodTestHelper {
         .existsByUniqueSiteIdParameters(Mockito.any(), Mockito.any(), Mockito.any(),
             Mockito.any(), Mockito.any(), Mockito.any());
     Mockito.verify(shippingMethodRepository, Mockito.times(0)).save(Mockito.any());
-    Mockito.verify(sfccService, Mockito.times(0)).syncShippingMethod(Mockito.any());
+    Mockito.verify(sfccSyncOutboxService, Mockito.times(0)).enqueue(Mockito.any());
   }
 
   @Test
@@ -302,7 +321,8 @@ public class ShippingMethodServiceTest extends ShippingMethodTestHelper {
         .existsByUniqueSiteIdParameters(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
     Mockito.verify(shippingMethodRepository, Mockito.times(1)).setDefaultSiteIdShippingMethodToNotDefault(Mockito.anyInt());
     Mockito.verify(shippingMethodRepository, Mockito.times(1)).save(Mockito.any());
-    Mockito.verify(sfccService, Mockito.times(1)).syncShippingMethod(Mockito.any());
+    Mockito.verify(sfccSyncOutboxService, Mockito.times(1)).enqueue(Mockito.any());
+    Mockito.verify(sfccService, Mockito.times(0)).syncShippingMethod(Mockito.any());
   }
 
   @Test
@@ -331,7 +351,7 @@ public class ShippingMethodServiceTest extends ShippingMethodTestHelper {
         .existsByUniqueSiteIdParameters(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
             Mockito.any(), Mockito.any());
     Mockito.verify(shippingMethodRepository, Mockito.times(1)).save(Mockito.any());
-    Mockito.verify(sfccService, Mockito.times(0)).syncShippingMethod(Mockito.any());
+    Mockito.verify(sfccSyncOutboxService, Mockito.times(0)).enqueue(Mockito.any());
   }
 
   @Test
@@ -348,8 +368,8 @@ public class ShippingMethodServiceTest extends ShippingMethodTestHelper {
     Mockito.when(responseConverter.convert(Mockito.any())).thenReturn(buildResponse());
     Mockito.when(sfccService.shouldSyncShippingMethod(Mockito.any())).thenReturn(true);
     Mockito.doThrow(new ValidationException(new Exception(""), "", ""))
-        .when(sfccService)
-        .syncShippingMethod(Mockito.any());
+        .when(sfccSyncOutboxService)
+        .enqueue(Mockito.any());
 
     assertThrows(ValidationException.class, () -> {
       shippingMethodService.createShippingMethod(shippingRequest);
@@ -362,7 +382,8 @@ public class ShippingMethodServiceTest extends ShippingMethodTestHelper {
         .existsByUniqueSiteIdParameters(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
             Mockito.any(), Mockito.any());
     Mockito.verify(shippingMethodRepository, Mockito.times(1)).save(Mockito.any());
-    Mockito.verify(sfccService, Mockito.times(1)).syncShippingMethod(Mockito.any());
+    Mockito.verify(sfccSyncOutboxService, Mockito.times(1)).enqueue(Mockito.any());
+    Mockito.verify(sfccService, Mockito.times(0)).syncShippingMethod(Mockito.any());
   }
 
   @Test
@@ -390,7 +411,200 @@ public class ShippingMethodServiceTest extends ShippingMethodTestHelper {
         .existsByUniqueSiteIdParameters(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
             Mockito.any(), Mockito.any());
     Mockito.verify(shippingMethodRepository, Mockito.times(1)).save(Mockito.any());
+    Mockito.verify(sfccSyncOutboxService, Mockito.times(0)).enqueue(Mockito.any());
+  }
+
+  @Test
+  void testCreateShippingMethodsQueuesSfccSync() {
+    List<ShippingMethodPostRequest> shippingRequests = List.of(
+        createCorrectShippingMethodPostRequest(true, true),
+        createCorrectShippingMethodPostRequest(false, false),
+        createCorrectShippingMethodPostRequest(false, false));
+    Mockito.when(siteIdRepository.findByName(Mockito.any())).thenReturn(buildSiteIdMocked());
+    Mockito.when(shippingMethodRepository.findAllBySiteIdNameOrderByPosition(Mockito.any()))
+        .thenReturn(List.of());
+    Mockito.when(
+            shippingMethodEntityConverter.fromShippingPostRequest(Mockito.any(), Mockito.any()))
+        .thenAnswer(invocation -> buildShippingEntityMockedFromPostRequest(
+            invocation.getArgument(0)));
+    Mockito.when(responseConverter.convert(Mockito.any())).thenReturn(buildResponse());
+    Mockito.when(sfccService.shouldSyncShippingMethod(Mockito.any())).thenReturn(true);
+
+    List<ShippingMethodResponse> responses = shippingMethodService
+        .createShippingMethods(shippingRequests);
+
+    Assertions.assertEquals(3, responses.size());
+    Mockito.verify(siteIdRepository, Mockito.times(1)).findByName("domain_name-AT");
+    Mockito.verify(carrierStringService, Mockito.times(3))
+        .validateCarrierStrings(Mockito.anyList());
+    Mockito.verify(shippingMethodRepository, Mockito.times(1))
+        .findAllBySiteIdNameOrderByPosition("domain_name-AT");
+    Mockito.verify(shippingMethodRepository, Mockito.times(0))
+        .existsByUniqueSiteIdParameters(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+            Mockito.any(), Mockito.any());
+    Mockito.verify(shippingMethodRepository, Mockito.times(1))
+        .setDefaultSiteIdShippingMethodToNotDefault(Mockito.anyInt());
+    Mockito.verify(shippingMethodRepository, Mockito.times(1)).saveAll(Mockito.anyList());
+    Mockito.verify(shippingMethodRepository, Mockito.times(1)).insertUniqueKeys(Mockito.anyList());
+    Mockito.verify(sfccSyncOutboxService, Mockito.times(3)).enqueue(Mockito.any());
     Mockito.verify(sfccService, Mockito.times(0)).syncShippingMethod(Mockito.any());
+    Mockito.verify(snapshotCache, Mockito.times(1)).evictAfterCommit("domain_name-AT");
+  }
+
+  @Test
+  void testCreateShippingMethodsConflictInsideBatch() {
+    List<ShippingMethodPostRequest> shippingRequests = List.of(
+        createCorrectShippingMethodPostRequest(true, false),
+        createCorrectShippingMethodPostRequest(true, false));
+    Mockito.when(siteIdRepository.findByName(Mockito.any())).thenReturn(buildSiteIdMocked());
+    Mockito.when(shippingMethodRepository.findAllBySiteIdNameOrderByPosition(Mockito.any()))
+        .thenReturn(List.of());
+
+    assertThrows(DataIntegrityViolationException.class,
+        () -> shippingMethodService.createShippingMethods(shippingRequests));
+
+    Mockito.verify(shippingMethodRepository, Mockito.times(0)).saveAll(Mockito.any());
+    Mockito.verify(sfccSyncOutboxService, Mockito.times(0)).enqueue(Mockito.any());
+  }
+
+  @Test
+  void testCreateShippingMethodsConflictWithExistingMethod() {
+    ShippingMethodPostRequest shippingRequest = createCorrectShippingMethodPostRequest(true, false);
+    ShippingMethodEntity existing = buildEnabledShippingMethod("carrier1");
+    Mockito.when(siteIdRepository.findByName(Mockito.any())).thenReturn(buildSiteIdMocked());
+    Mockito.when(shippingMethodRepository.findAllBySiteIdNameOrderByPosition(Mockito.any()))
+        .thenReturn(List.of(existing));
+
+    assertThrows(DataIntegrityViolationException.class,
+        () -> shippingMethodService.createShippingMethods(List.of(shippingRequest)));
+
+    Mockito.verify(shippingMethodRepository, Mockito.times(0)).saveAll(Mockito.any());
+  }
+
+  @Test
+  void testCreateShippingMethodsWithoutConflictWithExistingMethod() {
+    ShippingMethodPostRequest shippingRequest = createCorrectShippingMethodPostRequest(true, false);
+    ShippingMethodEntity existing = buildEnabledShippingMethod("otherCarrier");
+    Mockito.when(siteIdRepository.findByName(Mockito.any())).thenReturn(buildSiteIdMocked());
+    Mockito.when(shippingMethodRepository.findAllBySiteIdNameOrderByPosition(Mockito.any()))
+        .thenReturn(List.of(existing));
+    Mockito.when(
+            shippingMethodEntityConverter.fromShippingPostRequest(Mockito.any(), Mockito.any()))
+        .thenReturn(buildShippingEntityMockedFromPostRequest(shippingRequest));
+    Mockito.when(responseConverter.convert(Mockito.any())).thenReturn(buildResponse());
+
+    List<ShippingMethodResponse> responses = shippingMethodService
+        .createShippingMethods(List.of(shippingRequest));
+
+    Assertions.assertEquals(1, responses.size());
+    Mockito.verify(shippingMethodRepository, Mockito.times(1)).saveAll(Mockito.anyList());
+  }
+
+  @Test
+  void testCreateShippingMethodConflictFromIndex() {
+    ShippingMethodPostRequest shippingRequest = createCorrectShippingMethodPostRequest(true, false);
+    ShippingMethodConflicts conflicts = ShippingMethodConflicts.of(1, 1,
+        List.of(buildEnabledShippingMethod("carrier1")));
+    Mockito.when(siteIdRepository.findByName(Mockito.any())).thenReturn(buildSiteIdMocked());
+    Mockito.when(conflictIndex.lock(Mockito.any())).thenReturn(Optional.of(conflicts));
+
+    assertThrows(DataIntegrityViolationException.class,
+        () -> shippingMethodService.createShippingMethod(shippingRequest));
+
+    Mockito.verify(shippingMethodRepository, Mockito.times(0))
+        .existsByUniqueSiteIdParameters(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+            Mockito.any(), Mockito.any());
+    Mockito.verify(shippingMethodRepository, Mockito.times(0)).save(Mockito.any());
+    Mockito.verify(conflictIndex, Mockito.times(0)).publishAfterCommit(Mockito.any());
+  }
+
+  @Test
+  void testCreateShippingMethodWithoutConflictFromIndex() {
+    ShippingMethodPostRequest shippingRequest = createCorrectShippingMethodPostRequest(true, false);
+    ShippingMethodConflicts conflicts = ShippingMethodConflicts.of(1, 1,
+        List.of(buildEnabledShippingMethod("otherCarrier")));
+    Mockito.when(siteIdRepository.findByName(Mockito.any())).thenReturn(buildSiteIdMocked());
+    Mockito.when(conflictIndex.lock(Mockito.any())).thenReturn(Optional.of(conflicts));
+    Mockito.when(
+            shippingMethodEntityConverter.fromShippingPostRequest(Mockito.any(), Mockito.any()))
+        .thenReturn(buildShippingEntityMockedFromPostRequest(shippingRequest));
+    Mockito.when(responseConverter.convert(Mockito.any())).thenReturn(buildResponse());
+
+    shippingMethodService.createShippingMethod(shippingRequest);
+
+    Mockito.verify(shippingMethodRepository, Mockito.times(0))
+        .existsByUniqueSiteIdParameters(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+            Mockito.any(), Mockito.any());
+    Mockito.verify(shippingMethodRepository, Mockito.times(1)).save(Mockito.any());
+    Mockito.verify(shippingMethodRepository, Mockito.times(0)).insertUniqueKeys(Mockito.anyList());
+    Mockito.verify(conflictIndex, Mockito.times(1)).publishAfterCommit(Mockito.any());
+  }
+
+  @Test
+  void testCreateShippingMethodsWithSeveralDefaults() {
+    List<ShippingMethodPostRequest> shippingRequests = List.of(
+        createCorrectShippingMethodPostRequest(true, true),
+        createCorrectShippingMethodPostRequest(true, true));
+    Mockito.when(siteIdRepository.findByName(Mockito.any())).thenReturn(buildSiteIdMocked());
+
+    assertThrows(ValidationException.class,
+        () -> shippingMethodService.createShippingMethods(shippingRequests));
+
+    Mockito.verify(shippingMethodRepository, Mockito.times(0)).saveAll(Mockito.any());
+  }
+
+  @Test
+  void testCreateShippingMethodsLocksSitesInIdOrder() {
+    SiteIdEntity siteAT = buildSiteIdMocked();
+    SiteIdEntity siteDE = SiteIdEntity.builder().id(2).name("domain_name-DE")
+        .uniqueParameters(siteAT.getUniqueParameters()).build();
+    ShippingMethodPostRequest requestDE = createShippingMethodPostRequestForDE();
+    ShippingMethodPostRequest requestAT = createCorrectShippingMethodPostRequest(true, false);
+    Mockito.when(siteIdRepository.findByName("domain_name-AT")).thenReturn(siteAT);
+    Mockito.when(siteIdRepository.findByName("domain_name-DE")).thenReturn(siteDE);
+    Mockito.when(
+            shippingMethodEntityConverter.fromShippingPostRequest(Mockito.any(), Mockito.any()))
+        .thenAnswer(invocation -> {
+          ShippingMethodEntity shippingMethod = buildShippingEntityMockedFromPostRequest(
+              invocation.getArgument(0));
+          shippingMethod.setSiteId(invocation.getArgument(1));
+          return shippingMethod;
+        });
+    Mockito.when(responseConverter.convert(Mockito.any())).thenAnswer(invocation -> {
+      ShippingMethodResponse response = buildResponse();
+      response.setSiteId(invocation.<ShippingMethodEntity>getArgument(0).getSiteId().getName());
+      return response;
+    });
+
+    List<ShippingMethodResponse> responses = shippingMethodService
+        .createShippingMethods(List.of(requestDE, requestAT));
+
+    InOrder inOrder = Mockito.inOrder(conflictIndex);
+    inOrder.verify(conflictIndex).lock(siteAT);
+    inOrder.verify(conflictIndex).lock(siteDE);
+    Assertions.assertEquals(List.of("domain_name-DE", "domain_name-AT"),
+        responses.stream().map(ShippingMethodResponse::getSiteId).toList());
+  }
+
+  @Test
+  void testCreateShippingMethodsLocksNoSiteWhenOneIsMissing() {
+    ShippingMethodPostRequest requestDE = createShippingMethodPostRequestForDE();
+    Mockito.when(siteIdRepository.findByName("domain_name-AT")).thenReturn(buildSiteIdMocked());
+
+    assertThrows(ValidationException.class, () -> shippingMethodService.createShippingMethods(
+        List.of(createCorrectShippingMethodPostRequest(true, false), requestDE)));
+
+    Mockito.verify(conflictIndex, Mockito.times(0)).lock(Mockito.any());
+  }
+
+  @Test
+  void testCreateShippingMethodsWhenSiteIdIsNull() {
+    List<ShippingMethodPostRequest> shippingRequests = List.of(
+        createCorrectShippingMethodPostRequest(true, false));
+    Mockito.when(siteIdRepository.findByName(Mockito.any())).thenReturn(null);
+
+    assertThrows(ValidationException.class,
+        () -> shippingMethodService.createShippingMethods(shippingRequests));
   }
 
   @Test
@@ -417,7 +631,10 @@ public class ShippingMethodServiceTest extends ShippingMethodTestHelper {
             Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
     Mockito.verify(shippingMethodRepository, Mockito.times(0)).setDefaultSiteIdShippingMethodToNotDefault(Mockito.anyInt());
     Mockito.verify(shippingMethodRepository, Mockito.times(1)).save(Mockito.any());
-    Mockito.verify(sfccService, Mockito.times(1)).syncShippingMethod(Mockito.any());
+    Mockito.verify(shippingMethodRepository, Mockito.times(1)).deleteUniqueKeys(Mockito.anyList());
+    Mockito.verify(shippingMethodRepository, Mockito.times(1)).insertUniqueKeys(Mockito.anyList());
+    Mockito.verify(sfccSyncOutboxService, Mockito.times(1)).enqueue(Mockito.any());
+    Mockito.verify(sfccService, Mockito.times(0)).syncShippingMethod(Mockito.any());
   }
 
   @Test
@@ -446,7 +663,8 @@ public class ShippingMethodServiceTest extends ShippingMethodTestHelper {
             Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
     Mockito.verify(shippingMethodRepository, Mockito.times(0)).setDefaultSiteIdShippingMethodToNotDefault(Mockito.anyInt());
     Mockito.verify(shippingMethodRepository, Mockito.times(1)).save(Mockito.any());
-    Mockito.verify(sfccService, Mockito.times(1)).syncShippingMethod(Mockito.any());
+    Mockito.verify(sfccSyncOutboxService, Mockito.times(1)).enqueue(Mockito.any());
+    Mockito.verify(sfccService, Mockito.times(0)).syncShippingMethod(Mockito.any());
   }
 
   @Test
@@ -475,7 +693,53 @@ public class ShippingMethodServiceTest extends ShippingMethodTestHelper {
                                                                 Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
     Mockito.verify(shippingMethodRepository, Mockito.times(1)).setDefaultSiteIdShippingMethodToNotDefault(Mockito.anyInt());
     Mockito.verify(shippingMethodRepository, Mockito.times(1)).save(Mockito.any());
-    Mockito.verify(sfccService, Mockito.times(1)).syncShippingMethod(Mockito.any());
+    Mockito.verify(sfccSyncOutboxService, Mockito.times(1)).enqueue(Mockito.any());
+    Mockito.verify(sfccService, Mockito.times(0)).syncShippingMethod(Mockito.any());
+  }
+
+  @Test
+  void testDefaultShippingMethodQueuesDemotedDefault() {
+    ShippingMethodPostRequest shippingRequest = createCorrectShippingMethodPostRequest(true, true);
+    ShippingMethodEntity previousDefault = buildEnabledShippingMethod("carrier1");
+    previousDefault.setIsDefault(true);
+    Mockito.when(siteIdRepository.findByName(Mockito.any())).thenReturn(buildSiteIdMocked());
+    Mockito.when(
+            shippingMethodEntityConverter.fromShippingPostRequest(Mockito.any(), Mockito.any()))
+        .thenReturn(buildShippingEntityMockedFromPostRequest(shippingRequest));
+    Mockito.when(shippingMethodRepository.findDefaultShippingMethodsBySiteId(Mockito.any()))
+        .thenReturn(List.of(previousDefault));
+    Mockito.when(responseConverter.convert(Mockito.any())).thenReturn(buildResponse());
+    Mockito.when(sfccService.shouldSyncShippingMethod(Mockito.any())).thenReturn(true);
+
+    shippingMethodService.createShippingMethod(shippingRequest);
+
+    Assertions.assertFalse(previousDefault.getIsDefault());
+    Mockito.verify(shippingMethodRepository, Mockito.times(1))
+        .setDefaultSiteIdShippingMethodToNotDefault(Mockito.anyInt());
+    Mockito.verify(sfccSyncOutboxService, Mockito.times(1)).enqueue(previousDefault);
+    Mockito.verify(sfccSyncOutboxService, Mockito.times(2)).enqueue(Mockito.any());
+  }
+
+  @Test
+  void testUpdateShippingMethodCustomIdQueuesReplacedCustomId() {
+    ShippingMethodPatchRequest shippingRequest = createCorrectShippingMethodPatchRequest(false,
+        false);
+    ShippingMethodEntity shippingMethod = savedShippingMethod();
+    shippingMethod.setCustomId("previous");
+    ShippingMethodEntity mergedShippingMethod = buildShippingEntityMockedFromPatchRequest(
+        shippingRequest);
+    mergedShippingMethod.setCustomId("renamed");
+    Mockito.when(shippingMethodEntityConverter.mergeShippingMethodWithPatchRequest(Mockito.any(),
+            Mockito.any()))
+        .thenReturn(mergedShippingMethod);
+    Mockito.when(responseConverter.convert(Mockito.any())).thenReturn(buildResponse());
+    Mockito.when(sfccService.shouldSyncShippingMethod(Mockito.any())).thenReturn(true);
+
+    shippingMethodService.updateShippingMethod(shippingMethod, shippingRequest);
+
+    Mockito.verify(sfccSyncOutboxService, Mockito.times(1))
+        .enqueueCustomIdChange(mergedShippingMethod, "previous");
+    Mockito.verify(sfccSyncOutboxService, Mockito.times(0)).enqueue(Mockito.any());
   }
 
   @Test
@@ -502,7 +766,7 @@ public class ShippingMethodServiceTest extends ShippingMethodTestHelper {
         .existsShippingMethodsByUniqueParamsAndShippingMethodId(Mockito.any(), Mockito.any(),
             Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
     Mockito.verify(shippingMethodRepository, Mockito.times(0)).save(Mockito.any());
-    Mockito.verify(sfccService, Mockito.times(0)).syncShippingMethod(Mockito.any());
+    Mockito.verify(sfccSyncOutboxService, Mockito.times(0)).enqueue(Mockito.any());
   }
 
   @Test
@@ -527,7 +791,7 @@ public class ShippingMethodServiceTest extends ShippingMethodTestHelper {
         .existsShippingMethodsByUniqueParamsAndShippingMethodId(Mockito.any(), Mockito.any(),
             Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
     Mockito.verify(shippingMethodRepository, Mockito.times(0)).save(Mockito.any());
-    Mockito.verify(sfccService, Mockito.times(0)).syncShippingMethod(Mockito.any());
+    Mockito.verify(sfccSyncOutboxService, Mockito.times(0)).enqueue(Mockito.any());
   }
 
   @Test
@@ -551,7 +815,7 @@ public class ShippingMethodServiceTest extends ShippingMethodTestHelper {
         .existsShippingMethodsByUniqueParamsAndShippingMethodId(Mockito.any(), Mockito.any(),
             Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
     Mockito.verify(shippingMethodRepository, Mockito.times(0)).save(Mockito.any());
-    Mockito.verify(sfccService, Mockito.times(0)).syncShippingMethod(Mockito.any());
+    Mockito.verify(sfccSyncOutboxService, Mockito.times(0)).enqueue(Mockito.any());
   }
 
   @Test
@@ -577,7 +841,7 @@ public class ShippingMethodServiceTest extends ShippingMethodTestHelper {
         .existsShippingMethodsByUniqueParamsAndShippingMethodId(Mockito.any(), Mockito.any(),
             Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
     Mockito.verify(shippingMethodRepository, Mockito.times(1)).save(Mockito.any());
-    Mockito.verify(sfccService, Mockito.times(0)).syncShippingMethod(Mockito.any());
+    Mockito.verify(sfccSyncOutboxService, Mockito.times(0)).enqueue(Mockito.any());
   }
 
   @Test
@@ -591,8 +855,9 @@ public class ShippingMethodServiceTest extends ShippingMethodTestHelper {
         .thenReturn(buildShippingEntityMockedFromPatchRequest(shippingRequest));
     Mockito.when(responseConverter.convert(Mockito.any())).thenReturn(buildResponse());
     Mockito.when(sfccService.shouldSyncShippingMethod(Mockito.any())).thenReturn(true);
-    Mockito.when(sfccService.syncShippingMethod(Mockito.any()))
-        .thenThrow(new ValidationException(new Exception(""), "", ""));
+    Mockito.doThrow(new ValidationException(new Exception(""), "", ""))
+        .when(sfccSyncOutboxService)
+        .enqueue(Mockito.any());
 
     assertThrows(ValidationException.class, () -> {
       shippingMethodService.updateShippingMethod(savedShippingMethod(), shippingRequest);
@@ -604,7 +869,8 @@ public class ShippingMethodServiceTest extends ShippingMethodTestHelper {
         .existsShippingMethodsByUniqueParamsAndShippingMethodId(Mockito.any(), Mockito.any(),
             Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
     Mockito.verify(shippingMethodRepository, Mockito.times(1)).save(Mockito.any());
-    Mockito.verify(sfccService, Mockito.times(1)).syncShippingMethod(Mockito.any());
+    Mockito.verify(sfccSyncOutboxService, Mockito.times(1)).enqueue(Mockito.any());
+    Mockito.verify(sfccService, Mockito.times(0)).syncShippingMethod(Mockito.any());
   }
 
   @Test
@@ -630,7 +896,7 @@ public class ShippingMethodServiceTest extends ShippingMethodTestHelper {
         .existsShippingMethodsByUniqueParamsAndShippingMethodId(Mockito.any(), Mockito.any(),
             Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
     Mockito.verify(shippingMethodRepository, Mockito.times(1)).save(Mockito.any());
-    Mockito.verify(sfccService, Mockito.times(0)).syncShippingMethod(Mockito.any());
+    Mockito.verify(sfccSyncOutboxService, Mockito.times(0)).enqueue(Mockito.any());
   }
 
   @Test
@@ -641,6 +907,63 @@ public class ShippingMethodServiceTest extends ShippingMethodTestHelper {
 
     Mockito.verify(shippingMethodRepository, Mockito.times(1))
         .deleteByShippingMethodId(shippingMethodId);
+    Mockito.verify(snapshotCache, Mockito.times(1)).evictAllAfterCommit();
+  }
+
+  @Test
+  void testDeleteEvictsSiteSnapshot() {
+    UUID shippingMethodId = UUID.randomUUID();
+    Mockito.when(shippingMethodRepository.findSiteByShippingMethodId(shippingMethodId))
+        .thenReturn(Optional.of(buildSiteIdMocked()));
+    Mockito.when(shippingMethodRepository.deleteByShippingMethodId(Mockito.any())).thenReturn(1);
+    shippingMethodService.deleteShippingMethod(shippingMethodId);
+
+    Mockito.verify(snapshotCache, Mockito.times(1)).evictAfterCommit("domain_name-AT");
+    Mockito.verify(snapshotCache, Mockito.times(0)).evictAllAfterCommit();
+  }
+
+  @Test
+  void testWritePinsReadsToPrimaryBeforeEvictingSnapshot() {
+    ShippingMethodPatchRequest shippingRequest = createCorrectShippingMethodPatchRequest(false,
+        false);
+    Mockito.when(shippingMethodEntityConverter.mergeShippingMethodWithPatchRequest(Mockito.any(),
+            Mockito.any()))
+        .thenReturn(buildShippingEntityMockedFromPatchRequest(shippingRequest));
+
+    shippingMethodService.updateShippingMethod(savedShippingMethod(), shippingRequest);
+
+    InOrder afterCommit = Mockito.inOrder(readReplicaRouting, snapshotCache);
+    afterCommit.verify(readReplicaRouting).recordWriteAfterCommit("domain_name-AT");
+    afterCommit.verify(snapshotCache).evictAfterCommit("domain_name-AT");
+  }
+
+  @Test
+  void testDeleteRemovesShippingMethodFromConflictIndex() {
+    UUID shippingMethodId = UUID.randomUUID();
+    ShippingMethodEntity existing = buildEnabledShippingMethod("carrier1");
+    ShippingMethodConflicts conflicts = ShippingMethodConflicts.of(1, 1, List.of(existing));
+    Mockito.when(shippingMethodRepository.findSiteByShippingMethodId(shippingMethodId))
+        .thenReturn(Optional.of(buildSiteIdMocked()));
+    Mockito.when(conflictIndex.lock(Mockito.any())).thenReturn(Optional.of(conflicts));
+    Mockito.when(shippingMethodRepository.deleteByShippingMethodId(Mockito.any())).thenReturn(1);
+
+    shippingMethodService.deleteShippingMethod(shippingMethodId);
+
+    Mockito.verify(conflictIndex, Mockito.times(1)).publishAfterCommit(Mockito.any());
+  }
+
+  @Test
+  void testDeleteQueuesSfccDelete() {
+    ShippingMethodEntity shippingMethod = buildEnabledShippingMethod("carrier1");
+    UUID shippingMethodId = shippingMethod.getShippingMethodId();
+    Mockito.when(shippingMethodRepository.findByShippingMethodId(shippingMethodId))
+        .thenReturn(Optional.of(shippingMethod));
+    Mockito.when(sfccService.shouldSyncShippingMethod(shippingMethod)).thenReturn(true);
+    Mockito.when(shippingMethodRepository.deleteByShippingMethodId(Mockito.any())).thenReturn(1);
+
+    shippingMethodService.deleteShippingMethod(shippingMethodId);
+
+    Mockito.verify(sfccSyncOutboxService, Mockito.times(1)).enqueueDelete(shippingMethod);
   }
 
   @Test
@@ -650,6 +973,7 @@ public class ShippingMethodServiceTest extends ShippingMethodTestHelper {
 
     assertThrows(NotFoundException.class,
         () -> shippingMethodService.deleteShippingMethod(shippingMethodId));
+    Mockito.verifyNoInteractions(snapshotCache);
   }
 
   private ShippingMethodResponse buildResponse() {
@@ -912,6 +1236,21 @@ public class ShippingMethodServiceTest extends ShippingMethodTestHelper {
     Assertions.assertEquals(response, expectedResponse);
   }
 
+  private ShippingMethodEntity buildEnabledShippingMethod(String carrierString) {
+    return ShippingMethodEntity.builder()
+        .shippingMethodId(UUID.randomUUID())
+        .siteId(buildSiteIdMocked())
+        .enabled(true)
+        .isDefault(false)
+        .carrierService("carrier")
+        .channels(List.of(ChannelEntity.builder().channelName(ChannelEnum.WEB).build()))
+        .productTypes(List.of(
+            ProductTypeEntity.builder().productTypeName(ProductTypeEnum.BACKORDER).build()))
+        .carrierStrings(List.of(
+            CarrierStringEntity.builder().carrierString(carrierString).build()))
+        .build();
+  }
+
   private ShippingMethodEntity buildShippingEntityMockedFromPostRequest(ShippingMethodPostRequest shippingRequest) {
     return ShippingMethodEntity.builder()
         .siteId(buildSiteIdMocked())
@@ -963,6 +1302,18 @@ public class ShippingMethodServiceTest extends ShippingMethodTestHelper {
         .build();
   }
 
+  private ShippingMethodPostRequest createShippingMethodPostRequestForDE() {
+    return ShippingMethodPostRequest.builder()
+        .siteId("domain_name-DE")
+        .enabled(true)
+        .isDefault(false)
+        .channels(List.of(ChannelEnum.WEB))
+        .productTypes(List.of(ProductTypeEnum.BACKORDER))
+        .carrierStringRecords(List.of("carrier1"))
+        .carrierService("carrier")
+        .build();
+  }
+
   private ShippingMethodPostRequest createCorrectShippingMethodPostRequestWithAvailability(Boolean enabled, Boolean isDefault) {
     return ShippingMethodPostRequest.builder()
         .siteId("domain_name-AT")
@@ -0,0 +1,92 @@
+package com.domain_name.fulfillment.configuration.api.shipping.method;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.hash.Hashing;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Immutable view of the shipping methods of a site, kept with its JSON body already rendered
+ * and gzipped. The version is taken from the content so the ETag is the same on every pod.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ShippingMethodSnapshot {
+
+  private static final String WEAK_PREFIX = "W/";
+  private static final String ANY = "*";
+
+  private final String siteId;
+  private final List<ShippingMethodResponse> shippingMethods;
+  private final String version;
+  private final byte[] json;
+  private final byte[] gzippedJson;
+
+  /**
+   * Renders the given shipping methods into a snapshot.
+   *
+   * @param siteId of the shipping methods
+   * @param shippingMethods ordered by position
+   * @param mapper used by the web layer
+   * @return snapshot with the rendered bodies
+   */
+  public static ShippingMethodSnapshot render(String siteId,
+      List<ShippingMethodResponse> shippingMethods, ObjectMapper mapper) {
+    List<ShippingMethodResponse> responses = List.copyOf(shippingMethods);
+    byte[] json;
+    try {
+      json = mapper.writeValueAsBytes(responses);
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+    String version = Hashing.murmur3_128().hashBytes(json).toString();
+    return new ShippingMethodSnapshot(siteId, responses, version, json, gzip(json));
+  }
+
+  private static byte[] gzip(byte[] json) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(json);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return out.toByteArray();
+  }
+
+  public String getETag() {
+    return "\"" + version + "\"";
+  }
+
+  /**
+   * Checks an If-None-Match header against this snapshot, using the weak comparison that
+   * RFC 9110 asks for on conditional GETs.
+   *
+   * @param ifNoneMatch header value, may be null
+   * @return true if the client already holds this version
+   */
+  public boolean matches(String ifNoneMatch) {
+    if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+      return false;
+    }
+    String etag = getETag();
+    for (String candidate : ifNoneMatch.split(",")) {
+      String tag = candidate.trim();
+      if (tag.startsWith(WEAK_PREFIX)) {
+        tag = tag.substring(WEAK_PREFIX.length());
+      }
+      if (ANY.equals(tag) || etag.equals(tag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,234 @@
+package com.domain_name.fulfillment.configuration.api.shipping.method;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.domain_name.fulfillment.configuration.api.persistence.ReadReplicaRouting;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps an immutable, already converted and rendered snapshot of the shipping methods of every
+ * site that has been read, so that the GET path neither goes to the database nor runs Jackson
+ * while the data is unchanged. Snapshots are evicted by {@link ShippingMethodService} once a
+ * write on the site has committed.
+ *
+ * <p>Writes made by other instances are caught by the version of the site in
+ * {@code site_shipping_method_version}, which every write bumps: a snapshot is revalidated
+ * against it at most every {@code shipping-method.snapshot.revalidate-ms}, by one request while
+ * the others keep being served, and is reloaded when the version moved. Whatever the version
+ * says, a snapshot is not served for longer than {@code shipping-method.snapshot.max-age-ms}.
+ *
+ * <p>A load reads the version and runs the loader in one read-only transaction, routed by
+ * {@link ReadReplicaRouting} before its first statement, so the version comes from the same
+ * database as the shipping methods it describes.
+ */
+@Slf4j
+@Component
+public class ShippingMethodSnapshotCache {
+
+  public static final String CACHE_REQUESTS_METRIC = "shipping.method.snapshot.requests";
+  public static final String CACHE_LOAD_METRIC = "shipping.method.snapshot.load";
+  public static final String CACHE_SIZE_METRIC = "shipping.method.snapshot.size";
+  public static final String CACHE_EVICTIONS_METRIC = "shipping.method.snapshot.evictions";
+
+  private final Map<String, CompletableFuture<CachedSnapshot>> snapshots =
+      new ConcurrentHashMap<>();
+  private final ObjectMapper mapper;
+  private final ShippingMethodRepository shippingMethodRepository;
+  private final ReadReplicaRouting readReplicaRouting;
+  private final TransactionTemplate readTransaction;
+  private final long revalidateNanos;
+  private final long maxAgeNanos;
+
+  private final Counter hits;
+  private final Counter misses;
+  private final Counter evictions;
+  private final Timer loadTimer;
+
+  public ShippingMethodSnapshotCache(MeterRegistry meterRegistry, ObjectMapper mapper,
+      ShippingMethodRepository shippingMethodRepository, ReadReplicaRouting readReplicaRouting,
+      PlatformTransactionManager transactionManager,
+      @Value("${shipping-method.snapshot.revalidate-ms:1000}") long revalidateMs,
+      @Value("${shipping-method.snapshot.max-age-ms:300000}") long maxAgeMs) {
+    this.mapper = mapper;
+    this.shippingMethodRepository = shippingMethodRepository;
+    this.readReplicaRouting = readReplicaRouting;
+    this.readTransaction = new TransactionTemplate(transactionManager);
+    this.readTransaction.setReadOnly(true);
+    this.revalidateNanos = TimeUnit.MILLISECONDS.toNanos(revalidateMs);
+    this.maxAgeNanos = TimeUnit.MILLISECONDS.toNanos(maxAgeMs);
+    this.hits = Counter.builder(CACHE_REQUESTS_METRIC).tag("result", "hit")
+        .register(meterRegistry);
+    this.misses = Counter.builder(CACHE_REQUESTS_METRIC).tag("result", "miss")
+        .register(meterRegistry);
+    this.evictions = Counter.builder(CACHE_EVICTIONS_METRIC).register(meterRegistry);
+    this.loadTimer = Timer.builder(CACHE_LOAD_METRIC).register(meterRegistry);
+    Gauge.builder(CACHE_SIZE_METRIC, snapshots, Map::size).register(meterRegistry);
+  }
+
+  /**
+   * Returns the snapshot of the site, loading it with the given loader when it is not cached or
+   * no longer current. Concurrent misses on the same site share one load, which runs on the
+   * calling thread outside of any lock of the map.
+   *
+   * @param siteId of the shipping methods
+   * @param loader reading the shipping methods from the database, it joins the transaction of
+   *     the load
+   * @return snapshot of the shipping methods ordered by position
+   */
+  public ShippingMethodSnapshot get(String siteId,
+      Supplier<List<ShippingMethodResponse>> loader) {
+    while (true) {
+      CompletableFuture<CachedSnapshot> cached = snapshots.get(siteId);
+      if (cached == null) {
+        CompletableFuture<CachedSnapshot> loading = new CompletableFuture<>();
+        cached = snapshots.putIfAbsent(siteId, loading);
+        if (cached == null) {
+          return load(siteId, loader, loading);
+        }
+      }
+      CachedSnapshot entry = await(cached);
+      if (isCurrent(siteId, entry)) {
+        hits.increment();
+        return entry.snapshot;
+      }
+      snapshots.remove(siteId, cached);
+    }
+  }
+
+  private ShippingMethodSnapshot load(String siteId,
+      Supplier<List<ShippingMethodResponse>> loader, CompletableFuture<CachedSnapshot> loading) {
+    misses.increment();
+    log.debug("Loading shipping method snapshot for siteId {}", siteId);
+    try {
+      CachedSnapshot loaded = readTransaction.execute(status -> {
+        readReplicaRouting.usePrimaryIfRecentlyWritten(siteId);
+        // read before the data, so a write in between only makes the snapshot look older
+        long siteVersion = siteVersion(siteId);
+        ShippingMethodSnapshot snapshot = loadTimer.record(
+            () -> ShippingMethodSnapshot.render(siteId, loader.get(), mapper));
+        return new CachedSnapshot(snapshot, siteVersion, System.nanoTime());
+      });
+      loading.complete(loaded);
+      return loaded.snapshot;
+    } catch (RuntimeException ex) {
+      snapshots.remove(siteId, loading);
+      loading.completeExceptionally(ex);
+      throw ex;
+    }
+  }
+
+  private static CachedSnapshot await(CompletableFuture<CachedSnapshot> cached) {
+    try {
+      return cached.join();
+    } catch (CompletionException ex) {
+      if (ex.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw ex;
+    }
+  }
+
+  /**
+   * A snapshot past its revalidation interval is checked against the site version by the one
+   * request that claims it, the others keep serving it meanwhile. When the version cannot be
+   * read the snapshot is kept until its maximum age.
+   */
+  private boolean isCurrent(String siteId, CachedSnapshot entry) {
+    long now = System.nanoTime();
+    if (now - entry.loadedAt >= maxAgeNanos) {
+      return false;
+    }
+    long validatedAt = entry.validatedAt.get();
+    if (now - validatedAt < revalidateNanos
+        || !entry.validatedAt.compareAndSet(validatedAt, now)) {
+      return true;
+    }
+    try {
+      return siteVersion(siteId) == entry.siteVersion;
+    } catch (RuntimeException ex) {
+      log.warn("Error revalidating shipping method snapshot for siteId {} : {}", siteId, ex);
+      return true;
+    }
+  }
+
+  private long siteVersion(String siteId) {
+    return shippingMethodRepository.findSiteShippingMethodVersion(siteId).orElse(0L);
+  }
+
+  /**
+   * Evicts the snapshot of the site once the current transaction commits, or right away when
+   * there is no transaction.
+   *
+   * @param siteId to be evicted
+   */
+  public void evictAfterCommit(String siteId) {
+    runAfterCommit(() -> evict(siteId));
+  }
+
+  /**
+   * Evicts every snapshot once the current transaction commits, used when the site of a change
+   * cannot be resolved.
+   */
+  public void evictAllAfterCommit() {
+    runAfterCommit(this::evictAll);
+  }
+
+  public void evict(String siteId) {
+    if (snapshots.remove(siteId) != null) {
+      evictions.increment();
+    }
+  }
+
+  public void evictAll() {
+    evictions.increment(snapshots.size());
+    snapshots.clear();
+  }
+
+  private static void runAfterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
+  }
+
+  private static final class CachedSnapshot {
+
+    private final ShippingMethodSnapshot snapshot;
+    private final long siteVersion;
+    private final long loadedAt;
+    private final AtomicLong validatedAt;
+
+    private CachedSnapshot(ShippingMethodSnapshot snapshot, long siteVersion, long loadedAt) {
+      this.snapshot = snapshot;
+      this.siteVersion = siteVersion;
+      this.loadedAt = loadedAt;
+      this.validatedAt = new AtomicLong(loadedAt);
+    }
+  }
+}
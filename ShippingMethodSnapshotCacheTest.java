@@ -0,0 +1,244 @@
+package com.domain_name.fulfillment.configuration.api.shipping.method;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import com.domain_name.fulfillment.configuration.api.exception.NotFoundException;
+import com.domain_name.fulfillment.configuration.api.persistence.ReadReplicaRouting;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ShippingMethodSnapshotCacheTest {
+
+  private static final String SITE_ID = "domain_name-AT";
+
+  SimpleMeterRegistry meterRegistry;
+
+  ShippingMethodRepository shippingMethodRepository;
+
+  ReadReplicaRouting readReplicaRouting;
+
+  PlatformTransactionManager transactionManager;
+
+  ShippingMethodSnapshotCache snapshotCache;
+
+  AtomicInteger loads;
+
+  @BeforeEach
+  void setup() {
+    meterRegistry = new SimpleMeterRegistry();
+    shippingMethodRepository = Mockito.mock(ShippingMethodRepository.class);
+    readReplicaRouting = Mockito.mock(ReadReplicaRouting.class);
+    transactionManager = Mockito.mock(PlatformTransactionManager.class);
+    snapshotCache = cache(60000, 60000);
+    loads = new AtomicInteger();
+  }
+
+  private ShippingMethodSnapshotCache cache(long revalidateMs, long maxAgeMs) {
+    return new ShippingMethodSnapshotCache(meterRegistry,
+        Jackson2ObjectMapperBuilder.json().build(), shippingMethodRepository, readReplicaRouting,
+        transactionManager, revalidateMs, maxAgeMs);
+  }
+
+  private List<ShippingMethodResponse> load() {
+    loads.incrementAndGet();
+    List<ShippingMethodResponse> responses = new ArrayList<>();
+    responses.add(ShippingMethodResponse.builder().siteId(SITE_ID).carrierName("FedEx").build());
+    return responses;
+  }
+
+  @Test
+  void testGetLoadsOnceAndServesSnapshot() {
+    ShippingMethodSnapshot first = snapshotCache.get(SITE_ID, this::load);
+    ShippingMethodSnapshot second = snapshotCache.get(SITE_ID, this::load);
+
+    Assertions.assertSame(first, second);
+    Assertions.assertEquals(1, loads.get());
+    Assertions.assertEquals(1.0, meterRegistry.get(ShippingMethodSnapshotCache.CACHE_REQUESTS_METRIC)
+        .tag("result", "miss").counter().count());
+    Assertions.assertEquals(1.0, meterRegistry.get(ShippingMethodSnapshotCache.CACHE_REQUESTS_METRIC)
+        .tag("result", "hit").counter().count());
+    Assertions.assertEquals(1, meterRegistry.get(ShippingMethodSnapshotCache.CACHE_LOAD_METRIC)
+        .timer().count());
+  }
+
+  @Test
+  void testSnapshotIsImmutable() {
+    ShippingMethodSnapshot snapshot = snapshotCache.get(SITE_ID, this::load);
+
+    assertThrows(UnsupportedOperationException.class,
+        () -> snapshot.getShippingMethods().add(ShippingMethodResponse.builder().build()));
+  }
+
+  @Test
+  void testSnapshotVersionIsTakenFromContent() {
+    ShippingMethodSnapshot first = snapshotCache.get(SITE_ID, this::load);
+    snapshotCache.evict(SITE_ID);
+    ShippingMethodSnapshot reloaded = snapshotCache.get(SITE_ID, this::load);
+
+    Assertions.assertNotSame(first, reloaded);
+    Assertions.assertEquals(first.getETag(), reloaded.getETag());
+    Assertions.assertTrue(reloaded.matches("W/" + first.getETag()));
+    Assertions.assertTrue(reloaded.matches("*"));
+    Assertions.assertFalse(reloaded.matches("\"other\""));
+    Assertions.assertFalse(reloaded.matches(null));
+  }
+
+  @Test
+  void testEvictAfterCommitWithoutTransactionEvictsImmediately() {
+    snapshotCache.get(SITE_ID, this::load);
+    snapshotCache.get("domain_name-US", this::load);
+
+    snapshotCache.evictAfterCommit(SITE_ID);
+    snapshotCache.get(SITE_ID, this::load);
+    snapshotCache.get("domain_name-US", this::load);
+
+    Assertions.assertEquals(3, loads.get());
+  }
+
+  @Test
+  void testEvictAll() {
+    snapshotCache.get(SITE_ID, this::load);
+    snapshotCache.get("domain_name-US", this::load);
+
+    snapshotCache.evictAllAfterCommit();
+
+    Assertions.assertEquals(0.0, meterRegistry.get(ShippingMethodSnapshotCache.CACHE_SIZE_METRIC)
+        .gauge().value());
+    Assertions.assertEquals(2.0, meterRegistry.get(ShippingMethodSnapshotCache.CACHE_EVICTIONS_METRIC)
+        .counter().count());
+  }
+
+  @Test
+  void testVersionIsReadInTheTransactionOfTheLoader() {
+    InOrder inOrder = Mockito.inOrder(transactionManager, readReplicaRouting,
+        shippingMethodRepository);
+    ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(
+        TransactionDefinition.class);
+
+    snapshotCache.get(SITE_ID, () -> {
+      inOrder.verify(transactionManager).getTransaction(definition.capture());
+      inOrder.verify(readReplicaRouting).usePrimaryIfRecentlyWritten(SITE_ID);
+      inOrder.verify(shippingMethodRepository).findSiteShippingMethodVersion(SITE_ID);
+      return load();
+    });
+
+    inOrder.verify(transactionManager).commit(Mockito.any());
+    Assertions.assertTrue(definition.getValue().isReadOnly());
+  }
+
+  @Test
+  void testSnapshotIsKeptWhileSiteVersionIsUnchanged() {
+    ShippingMethodSnapshotCache revalidating = cache(0, 60000);
+    Mockito.when(shippingMethodRepository.findSiteShippingMethodVersion(SITE_ID))
+        .thenReturn(Optional.of(1L));
+
+    ShippingMethodSnapshot first = revalidating.get(SITE_ID, this::load);
+    ShippingMethodSnapshot second = revalidating.get(SITE_ID, this::load);
+
+    Assertions.assertSame(first, second);
+    Assertions.assertEquals(1, loads.get());
+    Mockito.verify(shippingMethodRepository, Mockito.times(2))
+        .findSiteShippingMethodVersion(SITE_ID);
+  }
+
+  @Test
+  void testSnapshotIsReloadedWhenAnotherInstanceWroteTheSite() {
+    ShippingMethodSnapshotCache revalidating = cache(0, 60000);
+    Mockito.when(shippingMethodRepository.findSiteShippingMethodVersion(SITE_ID))
+        .thenReturn(Optional.of(1L), Optional.of(2L));
+
+    ShippingMethodSnapshot first = revalidating.get(SITE_ID, this::load);
+    ShippingMethodSnapshot reloaded = revalidating.get(SITE_ID, this::load);
+
+    Assertions.assertNotSame(first, reloaded);
+    Assertions.assertEquals(2, loads.get());
+  }
+
+  @Test
+  void testSnapshotIsKeptWhenSiteVersionCannotBeRead() {
+    ShippingMethodSnapshotCache revalidating = cache(0, 60000);
+    Mockito.when(shippingMethodRepository.findSiteShippingMethodVersion(SITE_ID))
+        .thenReturn(Optional.of(1L))
+        .thenThrow(new IllegalStateException("database unavailable"));
+
+    ShippingMethodSnapshot first = revalidating.get(SITE_ID, this::load);
+
+    Assertions.assertSame(first, revalidating.get(SITE_ID, this::load));
+  }
+
+  @Test
+  void testSnapshotIsReloadedAfterMaxAge() {
+    ShippingMethodSnapshotCache expiring = cache(60000, 0);
+
+    expiring.get(SITE_ID, this::load);
+    expiring.get(SITE_ID, this::load);
+
+    Assertions.assertEquals(2, loads.get());
+  }
+
+  @Test
+  void testLoadDoesNotBlockOtherSites() throws Exception {
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<ShippingMethodSnapshot> slow = executor.submit(() -> snapshotCache.get(SITE_ID,
+          () -> {
+            loading.countDown();
+            await(release);
+            return load();
+          }));
+      Assertions.assertTrue(loading.await(5, TimeUnit.SECONDS));
+      Future<ShippingMethodSnapshot> waiting = executor.submit(
+          () -> snapshotCache.get(SITE_ID, this::load));
+
+      Assertions.assertNotNull(snapshotCache.get("domain_name-US", this::load));
+      Assertions.assertFalse(waiting.isDone());
+
+      release.countDown();
+      Assertions.assertSame(slow.get(5, TimeUnit.SECONDS), waiting.get(5, TimeUnit.SECONDS));
+      Assertions.assertEquals(2, loads.get());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Test
+  void testFailedLoadIsNotCached() {
+    assertThrows(NotFoundException.class, () -> snapshotCache.get(SITE_ID, () -> {
+      throw new NotFoundException("");
+    }));
+
+    snapshotCache.get(SITE_ID, this::load);
+
+    Assertions.assertEquals(1, loads.get());
+  }
+}
@@ -0,0 +1,215 @@
+package com.domain_name.fulfillment.configuration.api.shipping.method;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.util.CollectionUtils;
+
+import com.domain_name.fulfillment.configuration.api.channel.ChannelEntity;
+import com.domain_name.fulfillment.configuration.api.channel.ChannelEnum;
+import com.domain_name.fulfillment.configuration.api.constant.DbConstants;
+import com.domain_name.fulfillment.configuration.api.products.type.ProductTypeEntity;
+import com.domain_name.fulfillment.configuration.api.products.type.ProductTypeEnum;
+import com.domain_name.fulfillment.configuration.api.shipping.carrier.string.CarrierStringEntity;
+import com.domain_name.fulfillment.configuration.api.shipping.carrier.string.CarrierStringRecord;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+
+/**
+ * Values of a shipping method that take part in the unique parameters of its site, with the
+ * same matching rules as {@link ShippingMethodRepository#existsByUniqueSiteIdParameters}. A null
+ * dimension on a probe matches anything, and a null availability status list on a candidate only
+ * matches a probe that asks for shipping methods without availability status. Enum dimensions
+ * are kept in {@link EnumSet}s so that an overlap is a bit vector intersection.
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+final class ShippingMethodUniqueKey {
+
+  private final EnumSet<ChannelEnum> channels;
+  private final EnumSet<ProductTypeEnum> productTypes;
+  private final Set<String> carrierStrings;
+  private final String carrierService;
+  private final EnumSet<AvailabilityStatusEnum> availabilityStatuses;
+  private final boolean withoutAvailabilityStatus;
+
+  /**
+   * Builds the key a post request is checked with, only the unique parameters of the site are
+   * compared.
+   *
+   * @param request to be created
+   * @param uniqueParams of the site
+   * @return probe key
+   */
+  static ShippingMethodUniqueKey probe(ShippingMethodPostRequest request,
+      Map<String, String> uniqueParams) {
+    EnumSet<ChannelEnum> channels = uniqueParams.containsKey(DbConstants.CHANNELS)
+        ? toEnumSet(ChannelEnum.class, request.getChannels())
+        : null;
+    EnumSet<ProductTypeEnum> productTypes = uniqueParams.containsKey(DbConstants.PRODUCT_TYPES)
+        ? toEnumSet(ProductTypeEnum.class, request.getProductTypes())
+        : null;
+    Set<String> carrierStrings = uniqueParams.containsKey(DbConstants.CARRIER_STRING_RECORDS)
+        ? toSet(request.getCarrierStringRecords(), Function.identity())
+        : null;
+    EnumSet<AvailabilityStatusEnum> availabilityStatuses = null;
+    boolean withoutAvailabilityStatus = false;
+    if (uniqueParams.containsKey(DbConstants.AVAILABILITY_STATUS)) {
+      withoutAvailabilityStatus = request.getAvailabilityStatuses() == null;
+      availabilityStatuses = withoutAvailabilityStatus
+          ? EnumSet.noneOf(AvailabilityStatusEnum.class)
+          : toEnumSet(AvailabilityStatusEnum.class, request.getAvailabilityStatuses());
+    }
+    return new ShippingMethodUniqueKey(channels, productTypes, carrierStrings,
+        request.getCarrierService(), availabilityStatuses, withoutAvailabilityStatus);
+  }
+
+  /**
+   * Builds the key a patch request is checked with, with the same rules as
+   * {@link ShippingMethodRepository#existsShippingMethodsByUniqueParamsAndShippingMethodId}:
+   * values missing from the request are taken from the shipping method, patched carrier strings
+   * are added to the existing ones and an empty availability status list matches anything.
+   *
+   * @param request patching the shipping method
+   * @param shippingMethod to be patched
+   * @param uniqueParams of the site
+   * @return probe key
+   */
+  static ShippingMethodUniqueKey probe(ShippingMethodPatchRequest request,
+      ShippingMethodEntity shippingMethod, Map<String, String> uniqueParams) {
+    EnumSet<ChannelEnum> channels = uniqueParams.containsKey(DbConstants.CHANNELS)
+        ? toEnumSet(ChannelEnum.class, Optional.ofNullable(request.getChannels())
+            .orElseGet(() -> values(shippingMethod.getChannels(), ChannelEntity::getChannelName)))
+        : null;
+    EnumSet<ProductTypeEnum> productTypes = uniqueParams.containsKey(DbConstants.PRODUCT_TYPES)
+        ? toEnumSet(ProductTypeEnum.class, Optional.ofNullable(request.getProductTypes())
+            .orElseGet(() -> values(shippingMethod.getProductTypes(),
+                ProductTypeEntity::getProductTypeName)))
+        : null;
+    Set<String> carrierStrings = uniqueParams.containsKey(DbConstants.CARRIER_STRING_RECORDS)
+        ? toSet(Stream.concat(
+            values(request.getCarrierStringRecords(), CarrierStringRecord::getCarrierString)
+                .stream(),
+            values(shippingMethod.getCarrierStrings(), CarrierStringEntity::getCarrierString)
+                .stream()).toList(), Function.identity())
+        : null;
+    String carrierService = uniqueParams.containsKey(DbConstants.CARRIER_SERVICE)
+        ? Optional.ofNullable(request.getCarrierService())
+            .orElse(shippingMethod.getCarrierService())
+        : null;
+    EnumSet<AvailabilityStatusEnum> availabilityStatuses =
+        uniqueParams.containsKey(DbConstants.AVAILABILITY_STATUS)
+            ? toEnumSet(AvailabilityStatusEnum.class,
+                Optional.ofNullable(request.getAvailabilityStatus())
+                    .orElse(shippingMethod.getAvailabilityStatus()))
+            : null;
+    return new ShippingMethodUniqueKey(channels, productTypes, carrierStrings, carrierService,
+        availabilityStatuses, false);
+  }
+
+  /**
+   * Builds the key of a shipping method that will be created, to check the next requests of the
+   * same batch against it.
+   *
+   * @param request to be created
+   * @return candidate key
+   */
+  static ShippingMethodUniqueKey candidate(ShippingMethodPostRequest request) {
+    return new ShippingMethodUniqueKey(
+        enumSet(ChannelEnum.class, request.getChannels()),
+        enumSet(ProductTypeEnum.class, request.getProductTypes()),
+        set(request.getCarrierStringRecords(), Function.identity()),
+        request.getCarrierService(),
+        enumSet(AvailabilityStatusEnum.class, request.getAvailabilityStatuses()),
+        request.getAvailabilityStatuses() == null);
+  }
+
+  /**
+   * Builds the key of a persisted shipping method.
+   *
+   * @param shippingMethod persisted
+   * @return candidate key
+   */
+  static ShippingMethodUniqueKey candidate(ShippingMethodEntity shippingMethod) {
+    return new ShippingMethodUniqueKey(
+        enumSet(ChannelEnum.class,
+            values(shippingMethod.getChannels(), ChannelEntity::getChannelName)),
+        enumSet(ProductTypeEnum.class,
+            values(shippingMethod.getProductTypes(), ProductTypeEntity::getProductTypeName)),
+        set(shippingMethod.getCarrierStrings(), CarrierStringEntity::getCarrierString),
+        shippingMethod.getCarrierService(),
+        enumSet(AvailabilityStatusEnum.class, shippingMethod.getAvailabilityStatus()),
+        shippingMethod.getAvailabilityStatus() == null);
+  }
+
+  /**
+   * Checks this probe against a candidate.
+   *
+   * @param candidate enabled shipping method of the same site
+   * @return true if both would violate the unique parameters of the site
+   */
+  boolean conflictsWith(ShippingMethodUniqueKey candidate) {
+    return overlaps(channels, candidate.channels)
+        && overlaps(productTypes, candidate.productTypes)
+        && (carrierStrings == null
+            || !Collections.disjoint(carrierStrings, candidate.carrierStrings))
+        && (carrierService == null || carrierService.equals(candidate.carrierService))
+        && (availabilityStatuses == null
+            || withoutAvailabilityStatus && candidate.withoutAvailabilityStatus
+            || overlaps(availabilityStatuses, candidate.availabilityStatuses));
+  }
+
+  /**
+   * Checks this patch probe against a candidate. Like
+   * {@link ShippingMethodRepository#existsShippingMethodsByUniqueParamsAndShippingMethodId}, a
+   * candidate without channels or without product types never conflicts with a patch.
+   *
+   * @param candidate other enabled shipping method of the same site
+   * @return true if both would violate the unique parameters of the site
+   */
+  boolean patchConflictsWith(ShippingMethodUniqueKey candidate) {
+    return !candidate.channels.isEmpty() && !candidate.productTypes.isEmpty()
+        && conflictsWith(candidate);
+  }
+
+  private static <E extends Enum<E>> boolean overlaps(EnumSet<E> probe, EnumSet<E> candidate) {
+    return probe == null || !Collections.disjoint(probe, candidate);
+  }
+
+  private static <E extends Enum<E>> EnumSet<E> toEnumSet(Class<E> type, Collection<E> values) {
+    if (CollectionUtils.isEmpty(values)) {
+      return null;
+    }
+    return enumSet(type, values);
+  }
+
+  private static <E extends Enum<E>> EnumSet<E> enumSet(Class<E> type, Collection<E> values) {
+    EnumSet<E> set = EnumSet.noneOf(type);
+    Optional.ofNullable(values).ifPresent(set::addAll);
+    return set;
+  }
+
+  private static <T> Set<String> toSet(Collection<T> values, Function<T, String> mapper) {
+    if (CollectionUtils.isEmpty(values)) {
+      return null;
+    }
+    return set(values, mapper);
+  }
+
+  private static <T> Set<String> set(Collection<T> values, Function<T, String> mapper) {
+    return Optional.ofNullable(values).orElse(List.of()).stream().map(mapper)
+        .collect(Collectors.toUnmodifiableSet());
+  }
+
+  private static <T, R> List<R> values(Collection<T> values, Function<T, R> mapper) {
+    return Optional.ofNullable(values).orElse(List.of()).stream().map(mapper).toList();
+  }
+}
@@ -0,0 +1,280 @@
+package com.domain_name.fulfillment.configuration.api.shipping.method;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.domain_name.fulfillment.configuration.api.channel.ChannelEnum;
+import com.domain_name.fulfillment.configuration.api.channel.ChannelRepository;
+import com.domain_name.fulfillment.configuration.api.products.type.ProductTypeEnum;
+import com.domain_name.fulfillment.configuration.api.products.type.ProductTypeRepository;
+import com.domain_name.fulfillment.configuration.api.shipping.carrier.string.CarrierStringEntity;
+import com.domain_name.fulfillment.configuration.api.site.SiteIdEntity;
+import com.domain_name.fulfillment.configuration.api.site.SiteIdRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Checks that the uniqueness key lookups of POST and PATCH answer like the join queries they
+ * replaced, and compares their latency on a site with 500 shipping methods. Parameters that are
+ * not unique are passed as the service passes them, a list holding one empty string.
+ */
+@Slf4j
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers
+class ShippingMethodUniqueKeyIT {
+
+  private static final String SITE_ID = "domain_name-BENCH";
+  private static final int SHIPPING_METHODS = 500;
+  private static final int ITERATIONS = 200;
+  private static final String EMPTY = "";
+  private static final String UNMAPPED_CARRIER_STRING = "unmapped";
+
+  private static final String JOIN_QUERY = "select count(smc.shipping_method_id) > 0"
+      + " FROM site_shipping_method_configuration smc"
+      + "   inner join shipping_method_channel_mapping smcm on (smc.id = smcm.shipping_method_id and smcm.channel_id in (select channel_id from channel where LOWER(channel_name) in (:channels)))  or length(concat(:channels)) = 0"
+      + "   inner join shipping_method_product_type_mapping smpm on (smc.id = smpm.shipping_method_id and smpm.product_type_id in (select product_type_id from product_type where product_type_name in (:productTypes))) or length(concat(:productTypes)) = 0"
+      + "   inner join shipping_method_carrier_string smcs on (smc.id = smcs.shipping_method_id and smcs.carrier_string in (:carrierStringRecords)) or length(concat(:carrierStringRecords)) = 0 "
+      + " where smc.site_id = :siteId and smc.enabled = true and (smc.carrier_service=:carrierService or :carrierService is null) and ((:availabilityStatus\\:\\:varchar[] && availability_status) or (''=  ANY(:availabilityStatus) and availability_status is null) "
+      + " or cardinality (:availabilityStatus) = 0)";
+
+  private static final String PATCH_JOIN_QUERY = "select count(smc.id) > 0"
+      + " from site_shipping_method_configuration smc "
+      + "   inner join shipping_method_channel_mapping smcm on smc.id = smcm.shipping_method_id inner join channel c on (c.channel_id = smcm.channel_id and LOWER(c.channel_name) in (:channels)) or length(concat(:channels)) = 0 "
+      + "   inner join shipping_method_product_type_mapping smp on smc.id = smp.shipping_method_id inner join product_type p on (p.product_type_id = smp.product_type_id and p.product_type_name in (:productTypes)) or length(concat(:productTypes)) = 0 "
+      + "   inner join shipping_method_carrier_string smcs on (smc.id = smcs.shipping_method_id and smcs.carrier_string in (:carrierStringRecords)) or length(concat(:carrierStringRecords)) = 0 "
+      + " where smc.site_id = :siteId "
+      + " and (smc.carrier_service =:carrierService or :carrierService is null) "
+      + " and smc.id <> :shippingMethodId and smc.enabled=true and ((:availabilityStatus\\:\\:varchar[] && availability_status) or cardinality (:availabilityStatus) = 0 )";
+
+  @Container
+  static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13-alpine");
+
+  @DynamicPropertySource
+  static void datasourceProperties(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", postgres::getJdbcUrl);
+    registry.add("spring.datasource.hikari.jdbc-url", postgres::getJdbcUrl);
+    registry.add("spring.datasource.hikari.username", postgres::getUsername);
+    registry.add("spring.datasource.hikari.password", postgres::getPassword);
+  }
+
+  @Autowired
+  ShippingMethodRepository shippingMethodRepository;
+
+  @Autowired
+  SiteIdRepository siteIdRepository;
+
+  @Autowired
+  ChannelRepository channelRepository;
+
+  @Autowired
+  ProductTypeRepository productTypeRepository;
+
+  @Autowired
+  EntityManager entityManager;
+
+  SiteIdEntity siteId;
+
+  List<Integer> shippingMethodIds;
+
+  @BeforeEach
+  void setup() {
+    siteId = siteIdRepository.save(SiteIdEntity.builder()
+        .name(SITE_ID)
+        .uniqueParameters(Map.of("channels", "channel", "carrierStringRecords", "carrierString"))
+        .build());
+    List<ShippingMethodEntity> shippingMethods = new ArrayList<>(
+        IntStream.range(0, SHIPPING_METHODS).mapToObj(this::buildShippingMethod).toList());
+    shippingMethods.add(buildUnmappedShippingMethod());
+    shippingMethodRepository.saveAll(shippingMethods);
+    shippingMethodIds = shippingMethods.stream().map(ShippingMethodEntity::getId).toList();
+    shippingMethodRepository.insertUniqueKeys(shippingMethodIds);
+    entityManager.flush();
+    entityManager.clear();
+  }
+
+  private ShippingMethodEntity buildShippingMethod(int position) {
+    ChannelEnum[] channels = ChannelEnum.values();
+    ProductTypeEnum[] productTypes = ProductTypeEnum.values();
+    AvailabilityStatusEnum[] statuses = AvailabilityStatusEnum.values();
+    return ShippingMethodEntity.builder()
+        .shippingMethodId(UUID.randomUUID())
+        .name(Map.of("de-AT", "Standardlieferung " + position))
+        .description(Map.of("de-AT", "Standardlieferung"))
+        .fulfillmentTypes(List.of("HOMEDELIVERY"))
+        .enabled(position % 5 != 0)
+        .isDefault(false)
+        .carrierName("carrierName")
+        .carrierService(position % 2 == 0 ? "Express" : "Standard")
+        .position((short) position)
+        .siteId(siteId)
+        .channels(channelRepository.findByChannelNameIn(
+            List.of(channels[position % channels.length])))
+        .productTypes(productTypeRepository.findByProductTypeNameIn(
+            List.of(productTypes[position % productTypes.length])))
+        .carrierStrings(List.of(
+            CarrierStringEntity.builder().carrierString("carrier" + position).build(),
+            CarrierStringEntity.builder().carrierString("shared" + position % 10).build()))
+        .availabilityStatus(position % 3 == 0 ? null
+            : List.of(statuses[position % statuses.length]))
+        .createdBy("someone")
+        .createdDate(LocalDateTime.now())
+        .rules(List.of())
+        .build();
+  }
+
+  /**
+   * A method mapped to no channel and no product type: POST ignoring those dimensions matches it,
+   * PATCH never does.
+   */
+  private ShippingMethodEntity buildUnmappedShippingMethod() {
+    ShippingMethodEntity shippingMethod = buildShippingMethod(SHIPPING_METHODS);
+    shippingMethod.setChannels(List.of());
+    shippingMethod.setProductTypes(List.of());
+    shippingMethod.setCarrierStrings(List.of(
+        CarrierStringEntity.builder().carrierString(UNMAPPED_CARRIER_STRING).build()));
+    shippingMethod.setEnabled(true);
+    return shippingMethod;
+  }
+
+  private List<Object[]> probes() {
+    List<Object[]> probes = new ArrayList<>();
+    for (ChannelEnum channel : ChannelEnum.values()) {
+      String channelName = channel.getValue().toLowerCase(Locale.ENGLISH);
+      probes.add(probe(List.of(channelName), List.of(EMPTY), List.of("carrier1"), null,
+          new String[0]));
+      probes.add(probe(List.of(channelName), List.of(EMPTY), List.of("carrier5"), "Standard",
+          new String[0]));
+      probes.add(probe(List.of(channelName), List.of(EMPTY), List.of("shared3", "unknown"), null,
+          new String[] {EMPTY}));
+      probes.add(probe(List.of(channelName), List.of(EMPTY), List.of("unknown"), null,
+          new String[0]));
+      for (AvailabilityStatusEnum status : AvailabilityStatusEnum.values()) {
+        probes.add(probe(List.of(channelName),
+            Arrays.stream(ProductTypeEnum.values()).map(ProductTypeEnum::getValue).toList(),
+            List.of(EMPTY), "Express", new String[] {status.getValue()}));
+      }
+    }
+    probes.add(probe(List.of(EMPTY), List.of(EMPTY), List.of("carrier7"), null, new String[0]));
+    probes.add(probe(List.of(EMPTY), List.of(EMPTY), List.of(UNMAPPED_CARRIER_STRING), null,
+        new String[0]));
+    return probes;
+  }
+
+  /**
+   * The methods a PATCH excludes: the only holder of carrier1, one of the holders of shared3
+   * and a method matching none of the probes.
+   */
+  private List<Integer> excludedShippingMethodIds() {
+    return List.of(shippingMethodIds.get(1), shippingMethodIds.get(3),
+        shippingMethodIds.get(SHIPPING_METHODS - 1));
+  }
+
+  private static Object[] probe(List<String> channels, List<String> productTypes,
+      List<String> carrierStrings, String carrierService, String[] availabilityStatus) {
+    return new Object[] {channels, productTypes, carrierStrings, carrierService,
+        availabilityStatus};
+  }
+
+  @SuppressWarnings("unchecked")
+  private boolean existsByUniqueKeys(Object[] probe) {
+    return shippingMethodRepository.existsByUniqueSiteIdParameters(siteId.getId(),
+        (List<String>) probe[0], (List<String>) probe[1], (List<String>) probe[2],
+        (String) probe[3], (String[]) probe[4]);
+  }
+
+  @SuppressWarnings("unchecked")
+  private boolean existsByUniqueKeysExcluding(Object[] probe, Integer shippingMethodId) {
+    return shippingMethodRepository.existsShippingMethodsByUniqueParamsAndShippingMethodId(
+        siteId.getId(), (List<String>) probe[0], (List<String>) probe[1],
+        (List<String>) probe[2], (String) probe[3], shippingMethodId, (String[]) probe[4]);
+  }
+
+  private boolean existsByJoins(Object[] probe) {
+    return existsBy(entityManager.createNativeQuery(JOIN_QUERY), probe);
+  }
+
+  private boolean existsByJoinsExcluding(Object[] probe, Integer shippingMethodId) {
+    return existsBy(entityManager.createNativeQuery(PATCH_JOIN_QUERY)
+        .setParameter("shippingMethodId", shippingMethodId), probe);
+  }
+
+  private boolean existsBy(Query query, Object[] probe) {
+    query.setParameter("siteId", siteId.getId())
+        .setParameter("channels", probe[0])
+        .setParameter("productTypes", probe[1])
+        .setParameter("carrierStringRecords", probe[2])
+        .setParameter("carrierService", probe[3])
+        .setParameter("availabilityStatus", probe[4]);
+    return (Boolean) query.getSingleResult();
+  }
+
+  private long averageMicros(List<Object[]> probes, Predicate<Object[]> check) {
+    long start = System.nanoTime();
+    for (int i = 0; i < ITERATIONS; i++) {
+      probes.forEach(check::test);
+    }
+    return (System.nanoTime() - start) / 1000 / ((long) ITERATIONS * probes.size());
+  }
+
+  @Test
+  void testUniqueKeysMatchJoinQueries() {
+    probes().forEach(probe -> Assertions.assertEquals(existsByJoins(probe),
+        existsByUniqueKeys(probe), () -> "probe " + Arrays.deepToString(probe)));
+  }
+
+  @Test
+  void testUniqueKeysExcludingShippingMethodMatchJoinQueries() {
+    excludedShippingMethodIds().forEach(shippingMethodId -> probes().forEach(probe -> Assertions
+        .assertEquals(existsByJoinsExcluding(probe, shippingMethodId),
+            existsByUniqueKeysExcluding(probe, shippingMethodId),
+            () -> "probe " + Arrays.deepToString(probe) + " excluding " + shippingMethodId)));
+  }
+
+  @Test
+  void testPatchDoesNotMatchShippingMethodsWithoutChannelsOrProductTypes() {
+    Object[] probe = probe(List.of(EMPTY), List.of(EMPTY), List.of(UNMAPPED_CARRIER_STRING), null,
+        new String[0]);
+    Integer shippingMethodId = shippingMethodIds.get(0);
+
+    Assertions.assertTrue(existsByUniqueKeys(probe));
+    Assertions.assertFalse(existsByJoinsExcluding(probe, shippingMethodId));
+    Assertions.assertFalse(existsByUniqueKeysExcluding(probe, shippingMethodId));
+  }
+
+  @Test
+  void benchmarkUniqueKeysAgainstJoinQueries() {
+    List<Object[]> probes = probes();
+    // warm up the plans of both queries before measuring
+    probes.forEach(this::existsByJoins);
+    probes.forEach(this::existsByUniqueKeys);
+
+    long joins = averageMicros(probes, this::existsByJoins);
+    long uniqueKeys = averageMicros(probes, this::existsByUniqueKeys);
+
+    // timings are reported rather than asserted, they depend on the machine running the build
+    log.info("Unique parameters check on {} shipping methods: joins {} us, unique keys {} us",
+        SHIPPING_METHODS, joins, uniqueKeys);
+  }
+}
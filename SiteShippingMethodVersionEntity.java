@@ -0,0 +1,39 @@
+package com.domain_name.fulfillment.configuration.api.shipping.method;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Version of the shipping methods of a site, bumped by every write on them, see
+ * {@link ShippingMethodRepository#lockSiteShippingMethods}.
+ */
+@Entity
+@Table(name = "site_shipping_method_version")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SiteShippingMethodVersionEntity {
+
+  @Id
+  @Column(name = "site_id")
+  private Integer siteId;
+
+  @Column(name = "version", nullable = false)
+  private long version;
+
+  /**
+   * Version the uniqueness keys of the site were last written at, see
+   * {@link ShippingMethodRepository#advanceUniqueKeysVersion}.
+   */
+  @Column(name = "unique_keys_version", nullable = false)
+  private long uniqueKeysVersion;
+}
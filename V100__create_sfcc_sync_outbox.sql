@@ -0,0 +1,19 @@
+CREATE TABLE IF NOT EXISTS sfcc_sync_outbox (
+  id BIGSERIAL PRIMARY KEY,
+  site_id INTEGER NOT NULL,
+  shipping_method_id UUID NOT NULL,
+  status VARCHAR(20) NOT NULL,
+  attempts INTEGER NOT NULL DEFAULT 0,
+  last_error VARCHAR(2048),
+  next_attempt_date TIMESTAMP NOT NULL,
+  created_date TIMESTAMP NOT NULL,
+  modified_date TIMESTAMP NOT NULL,
+  synced_date TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS sfcc_sync_outbox_open_idx
+  ON sfcc_sync_outbox (site_id, next_attempt_date)
+  WHERE status IN ('PENDING', 'IN_PROGRESS');
+
+CREATE INDEX IF NOT EXISTS sfcc_sync_outbox_shipping_method_idx
+  ON sfcc_sync_outbox (shipping_method_id, id DESC);
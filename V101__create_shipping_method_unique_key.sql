@@ -0,0 +1,34 @@
+CREATE TABLE IF NOT EXISTS shipping_method_unique_key (
+  id BIGSERIAL PRIMARY KEY,
+  shipping_method_id INTEGER NOT NULL
+    REFERENCES site_shipping_method_configuration (id) ON DELETE CASCADE,
+  site_id INTEGER NOT NULL,
+  channel VARCHAR(255),
+  product_type VARCHAR(255),
+  carrier_string VARCHAR(255),
+  carrier_service VARCHAR(255),
+  availability_status VARCHAR(255),
+  without_availability_status BOOLEAN NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS shipping_method_unique_key_carrier_string_idx
+  ON shipping_method_unique_key (site_id, carrier_string, channel, product_type);
+
+CREATE INDEX IF NOT EXISTS shipping_method_unique_key_channel_idx
+  ON shipping_method_unique_key (site_id, channel, product_type);
+
+CREATE INDEX IF NOT EXISTS shipping_method_unique_key_shipping_method_idx
+  ON shipping_method_unique_key (shipping_method_id);
+
+INSERT INTO shipping_method_unique_key (shipping_method_id, site_id, channel, product_type,
+  carrier_string, carrier_service, availability_status, without_availability_status)
+SELECT smc.id, smc.site_id, LOWER(c.channel_name), p.product_type_name, smcs.carrier_string,
+  smc.carrier_service, s.status, smc.availability_status IS NULL
+FROM site_shipping_method_configuration smc
+  LEFT JOIN shipping_method_channel_mapping smcm ON smcm.shipping_method_id = smc.id
+  LEFT JOIN channel c ON c.channel_id = smcm.channel_id
+  LEFT JOIN shipping_method_product_type_mapping smpm ON smpm.shipping_method_id = smc.id
+  LEFT JOIN product_type p ON p.product_type_id = smpm.product_type_id
+  LEFT JOIN shipping_method_carrier_string smcs ON smcs.shipping_method_id = smc.id
+  LEFT JOIN LATERAL UNNEST(smc.availability_status) s(status) ON TRUE
+WHERE smc.enabled = TRUE;
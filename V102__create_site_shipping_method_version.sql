@@ -0,0 +1,4 @@
+CREATE TABLE IF NOT EXISTS site_shipping_method_version (
+  site_id INTEGER PRIMARY KEY,
+  version BIGINT NOT NULL
+);
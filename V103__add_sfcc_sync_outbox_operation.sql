@@ -0,0 +1,3 @@
+ALTER TABLE sfcc_sync_outbox ADD COLUMN IF NOT EXISTS operation VARCHAR(10) NOT NULL DEFAULT 'UPSERT';
+
+ALTER TABLE sfcc_sync_outbox ADD COLUMN IF NOT EXISTS custom_id VARCHAR(255);
@@ -0,0 +1,7 @@
+ALTER TABLE sfcc_sync_outbox ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+
+CREATE TABLE IF NOT EXISTS sfcc_sync_hash (
+  shipping_method_id UUID PRIMARY KEY,
+  content_hash VARCHAR(64) NOT NULL,
+  synced_date TIMESTAMP NOT NULL
+);
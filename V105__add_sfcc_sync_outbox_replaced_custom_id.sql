@@ -0,0 +1 @@
+ALTER TABLE sfcc_sync_outbox ADD COLUMN IF NOT EXISTS replaced_custom_id VARCHAR(255);
@@ -0,0 +1,3 @@
+CREATE INDEX IF NOT EXISTS sfcc_sync_outbox_synced_idx
+  ON sfcc_sync_outbox (synced_date)
+  WHERE status = 'SYNCED';
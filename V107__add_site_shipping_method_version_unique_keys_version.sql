@@ -0,0 +1,7 @@
+-- version of the site the rows of shipping_method_unique_key were last written at, they are only
+-- maintained while the shipping method conflict index is disabled
+ALTER TABLE site_shipping_method_version
+  ADD COLUMN IF NOT EXISTS unique_keys_version BIGINT NOT NULL DEFAULT 0;
+
+-- every write maintained the keys so far
+UPDATE site_shipping_method_version SET unique_keys_version = version;
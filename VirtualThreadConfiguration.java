@@ -0,0 +1,89 @@
+package com.domain_name.fulfillment.configuration.api;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.boot.autoconfigure.condition.ConditionMessage;
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+import com.domain_name.fulfillment.configuration.api.logging.MDCTaskDecorator;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Opt-in mode running servlet requests and {@code @Async} work on virtual threads, enabled with
+ * {@code spring.threads.virtual.enabled}. Outbound SFCC calls are made by Feign on the calling
+ * thread, so they run on the virtual request thread as well. The service is built for Java 17,
+ * so the executor is looked up at runtime. On a runtime without virtual threads, such as the
+ * Java 17 image of the Dockerfile, the mode is skipped with a warning and requests keep running
+ * on the Tomcat thread pool.
+ *
+ * <p>Blocking I/O is then bounded by the Hikari and HttpClient pools rather than by the Tomcat
+ * thread pool, both of which park virtual threads on locks instead of pinning them.
+ */
+@Slf4j
+@Configuration
+@Conditional(VirtualThreadConfiguration.OnVirtualThreadsCondition.class)
+public class VirtualThreadConfiguration {
+
+  static final String ENABLED_PROPERTY = "spring.threads.virtual.enabled";
+
+  @Bean
+  TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+    ExecutorService executor = newVirtualThreadPerTaskExecutor();
+    log.info("Tomcat requests run on virtual threads");
+    return protocolHandler -> protocolHandler.setExecutor(executor);
+  }
+
+  @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+  AsyncTaskExecutor applicationTaskExecutor(MDCTaskDecorator taskDecorator) {
+    TaskExecutorAdapter executor = new TaskExecutorAdapter(newVirtualThreadPerTaskExecutor());
+    executor.setTaskDecorator(taskDecorator);
+    return executor;
+  }
+
+  /**
+   * Java 19 and 20 only have virtual threads as a preview API, which is disabled by default.
+   */
+  static boolean isSupported() {
+    return Runtime.version().feature() >= 21;
+  }
+
+  static ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+          .invoke(null);
+    } catch (ReflectiveOperationException ex) {
+      throw new IllegalStateException("Virtual threads need a Java 21 runtime, unset "
+          + ENABLED_PROPERTY + " or upgrade the runtime", ex);
+    }
+  }
+
+  static class OnVirtualThreadsCondition extends SpringBootCondition {
+
+    @Override
+    public ConditionOutcome getMatchOutcome(ConditionContext context,
+        AnnotatedTypeMetadata metadata) {
+      ConditionMessage.Builder message = ConditionMessage.forCondition("Virtual threads");
+      if (!context.getEnvironment().getProperty(ENABLED_PROPERTY, Boolean.class, false)) {
+        return ConditionOutcome.noMatch(message.because(ENABLED_PROPERTY + " is not true"));
+      }
+      if (!isSupported()) {
+        log.warn("{} is set but Java {} has no virtual threads, requests keep running on "
+            + "platform threads", ENABLED_PROPERTY, Runtime.version().feature());
+        return ConditionOutcome.noMatch(message.because("the runtime has no virtual threads"));
+      }
+      return ConditionOutcome.match(message.because(ENABLED_PROPERTY + " is true"));
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package com.domain_name.fulfillment.configuration.api;
+
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import com.domain_name.fulfillment.configuration.api.logging.MDCManager;
+import com.domain_name.fulfillment.configuration.api.logging.MDCTaskDecorator;
+
+class VirtualThreadConfigurationTest {
+
+  ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+      .withBean(MDCTaskDecorator.class, MDCTaskDecorator::new)
+      .withUserConfiguration(VirtualThreadConfiguration.class);
+
+  @AfterEach
+  void clearMdc() {
+    MDC.clear();
+  }
+
+  @Test
+  void testPlatformThreadsByDefault() {
+    contextRunner.run(context -> {
+      Assertions.assertNull(context.getStartupFailure());
+      Assertions.assertTrue(context.getBeansOfType(TomcatProtocolHandlerCustomizer.class)
+          .isEmpty());
+      Assertions.assertFalse(context.containsBean(
+          TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME));
+    });
+  }
+
+  @Test
+  void testPlatformThreadsWhenRuntimeHasNoVirtualThreads() {
+    Assumptions.assumeFalse(VirtualThreadConfiguration.isSupported());
+
+    contextRunner.withPropertyValues(VirtualThreadConfiguration.ENABLED_PROPERTY + "=true")
+        .run(context -> {
+          Assertions.assertNull(context.getStartupFailure());
+          Assertions.assertTrue(context.getBeansOfType(TomcatProtocolHandlerCustomizer.class)
+              .isEmpty());
+          Assertions.assertFalse(context.containsBean(
+              TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME));
+        });
+  }
+
+  @Test
+  void testAsyncWorkRunsOnVirtualThreadsWithMdcWhenEnabled() {
+    Assumptions.assumeTrue(VirtualThreadConfiguration.isSupported());
+
+    contextRunner.withPropertyValues(VirtualThreadConfiguration.ENABLED_PROPERTY + "=true")
+        .run(context -> {
+          Assertions.assertNull(context.getStartupFailure());
+          Assertions.assertEquals(1, context.getBeansOfType(TomcatProtocolHandlerCustomizer.class)
+              .size());
+          AsyncTaskExecutor executor = context.getBean(
+              TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+              AsyncTaskExecutor.class);
+          MDC.put(MDCManager.REQUEST_SITE_ID, "domain_name-AT");
+
+          Future<String> siteId = executor.submit(() -> MDC.get(MDCManager.REQUEST_SITE_ID));
+          Future<Object> virtual = executor.submit(
+              () -> Thread.class.getMethod("isVirtual").invoke(Thread.currentThread()));
+
+          Assertions.assertEquals("domain_name-AT", siteId.get());
+          Assertions.assertEquals(Boolean.TRUE, virtual.get());
+        });
+  }
+}
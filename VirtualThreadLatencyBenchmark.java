@@ -0,0 +1,86 @@
+package com.domain_name.fulfillment.configuration.api;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Latency of a GET while 1,000 GETs are in flight, on a pool the size of the default Tomcat pool
+ * and on virtual threads. Each GET spends a little CPU and then blocks as if waiting for the
+ * database or SFCC. It is left out of the default benchmark run: run it on a Java 21 runtime with
+ * {@code mvn -P benchmark verify -Djmh.includes=VirtualThread} and compare the p0.99 of both
+ * runs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class VirtualThreadLatencyBenchmark {
+
+  private static final int IN_FLIGHT = 1000;
+  private static final int TOMCAT_THREADS = 200;
+  private static final long BLOCKED_MS = 20;
+  private static final int CPU_TOKENS = 10000;
+
+  @Param({"platform", "virtual"})
+  String threads;
+
+  ExecutorService executor;
+  volatile boolean running;
+
+  @Setup
+  public void setup() {
+    executor = "virtual".equals(threads)
+        ? VirtualThreadConfiguration.newVirtualThreadPerTaskExecutor()
+        : Executors.newFixedThreadPool(TOMCAT_THREADS);
+    running = true;
+    // the measured GET is the last of the in-flight ones, the others are resubmitted when done
+    for (int i = 1; i < IN_FLIGHT; i++) {
+      executor.execute(this::backgroundGet);
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws InterruptedException {
+    running = false;
+    executor.shutdownNow();
+    executor.awaitTermination(10, TimeUnit.SECONDS);
+  }
+
+  private void backgroundGet() {
+    if (!running) {
+      return;
+    }
+    try {
+      simulatedGet();
+      executor.execute(this::backgroundGet);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    } catch (RuntimeException ex) {
+      // rejected once the executor is shut down
+    }
+  }
+
+  private static void simulatedGet() throws InterruptedException {
+    Blackhole.consumeCPU(CPU_TOKENS);
+    Thread.sleep(BLOCKED_MS);
+  }
+
+  @Benchmark
+  public Object get() throws Exception {
+    return executor.submit(() -> {
+      simulatedGet();
+      return null;
+    }).get();
+  }
+}